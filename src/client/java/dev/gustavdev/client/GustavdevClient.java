@@ -0,0 +1,31 @@
+package dev.gustavdev.client;
+
+import dev.gustavdev.network.AccessoryFlagsPayload;
+import dev.gustavdev.util.AccessoryUtil;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+
+/**
+ * Client entrypoint of the mod.
+ * 
+ * Receives the accessory flags synced by AccessoryFlagsSync and stores them on the
+ * client-side entity, where AccessoryUtil's client checks pick them up.
+ */
+public class GustavdevClient implements ClientModInitializer {
+
+    @Override
+    public void onInitializeClient() {
+        // Handlers run on the client thread
+        ClientPlayNetworking.registerGlobalReceiver(AccessoryFlagsPayload.TYPE, (payload, context) -> {
+            if (context.client().level == null) {
+                return;
+            }
+            Entity entity = context.client().level.getEntity(payload.entityId());
+            if (entity instanceof LivingEntity livingEntity) {
+                AccessoryUtil.setSyncedFlags(livingEntity, payload.flags());
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package dev.gustavdev.client.mixin;
+
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import dev.gustavdev.util.FakeHandHolder;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.InteractionHand;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Mixin to keep FAKE_HAND out of the client's use-item loop.
+ * 
+ * Minecraft.startUseItem iterates InteractionHand.values() on every right click and
+ * while the use key is held, asking each hand for its item. FAKE_HAND would answer
+ * with the accessory totem and then be sent to the server in a use packet.
+ */
+@Mixin(Minecraft.class)
+public class MinecraftMixin {
+
+    /** InteractionHand.values() without FAKE_HAND, never handed out beyond the wrapped loop. */
+    @Unique
+    private static final InteractionHand[] REAL_HANDS = FakeHandHolder.realHands();
+
+    /**
+     * Only iterates the real hands. Returns the shared filtered array, so the
+     * values() clone is skipped as well.
+     */
+    @WrapOperation(
+        method = "startUseItem",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/InteractionHand;values()[Lnet/minecraft/world/InteractionHand;"
+        )
+    )
+    private InteractionHand[] skipFakeHand(Operation<InteractionHand[]> original) {
+        return REAL_HANDS;
+    }
+}
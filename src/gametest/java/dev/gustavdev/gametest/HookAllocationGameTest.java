@@ -0,0 +1,320 @@
+package dev.gustavdev.gametest;
+
+import com.sun.management.ThreadMXBean;
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
+import dev.gustavdev.util.AccessoryPrecompute;
+import dev.gustavdev.util.AccessoryUtil;
+import dev.gustavdev.util.FakeHandHolder;
+import dev.gustavdev.util.GameplayUtil;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.item.PlayerInventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Allocation tests for the mod's per-tick hook paths, run on demand by runGameTest.
+ * 
+ * Every test calls the real, mixed-in hooks on a LoadFixture, first WARMUP_RUNS times over
+ * all its entities so the paths are compiled, then RUNS times while the server thread's
+ * allocated bytes are read from ThreadMXBean. The total bytes of all measured calls are
+ * held against the path's budget, so a single allocation anywhere fails it.
+ * 
+ * Where the hooked method does work of its own (AerialHell's inventoryTick, Create's
+ * isWearingGoggles, Fabric API's offer), the test compares against the same number of
+ * calls without the hook's work, so only the bytes the hook adds are held against its budget.
+ * HookMetrics stays disabled while measuring (it emits JFR events when enabled); each
+ * test checks separately that its hook is actually reached.
+ */
+public class HookAllocationGameTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("gustavdev");
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Runs over all entities before measuring, so the hook paths are compiled. */
+    private static final int WARMUP_RUNS = 1_000;
+
+    /** Measured runs over all entities. */
+    private static final int RUNS = 2_000;
+
+    /**
+     * Budget of every measured path, in bytes over all RUNS × entities calls: the hooks
+     * only read cached state and shared arrays, so nothing they add may allocate at all.
+     */
+    private static final long BUDGET_BYTES = 0;
+
+    private static final Predicate<ItemStack> IS_TOTEM = GameplayUtil::isTotem;
+
+    /** Consumes every result, so the measured calls cannot be optimized away. */
+    private static int sink;
+
+    /**
+     * The cached AccessoryUtil lookups behind all hooks must not allocate, with or
+     * without accessories, totems or goggles equipped.
+     */
+    @GameTest
+    public void accessoryUtil(GameTestHelper helper) {
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, LoadFixture.item("create:goggles"))) {
+            List<LivingEntity> entities = entities(fixture);
+            AccessoryPrecompute.precompute();
+
+            checkBudget(helper, "getTotemStack", allocatedBytes(entities,
+                entity -> AccessoryUtil.getTotemStack(entity).getCount()));
+            checkBudget(helper, "getTotemStack(item)", allocatedBytes(entities,
+                entity -> AccessoryUtil.getTotemStack(entity, Items.TOTEM_OF_UNDYING).getCount()));
+            checkBudget(helper, "getDeathProtectionStack", allocatedBytes(entities,
+                entity -> AccessoryUtil.getDeathProtectionStack(entity).getCount()));
+            checkBudget(helper, "hasGoggles", allocatedBytes(entities,
+                entity -> AccessoryUtil.hasGoggles(entity) ? 1 : 0));
+            checkBudget(helper, "getGliderStack", allocatedBytes(entities,
+                entity -> AccessoryUtil.getGliderStack(entity).getCount()));
+            checkBudget(helper, "getAccessoryStack", allocatedBytes(entities,
+                entity -> AccessoryUtil.getAccessoryStack(entity, IS_TOTEM).getCount()));
+        }
+        helper.succeed();
+    }
+
+    /**
+     * getItemInHand(FAKE_HAND), as called by vanilla's death protection hand loop, must not
+     * allocate for mobs and players of every loadout.
+     */
+    @GameTest
+    public void wrapGetItemInHand(GameTestHelper helper) {
+        if (FakeHandHolder.FAKE_HAND == null) {
+            LOGGER.info("wrapGetItemInHand: DIRECT death protection mode, skipped");
+            helper.succeed();
+            return;
+        }
+
+        checkSwitchedOn(helper, GustavdevConfig.HOOKS_ACCESSORY_TOTEM);
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, LoadFixture.item("create:goggles"))) {
+            List<LivingEntity> entities = entities(fixture);
+            AccessoryPrecompute.precompute();
+            InteractionHand fakeHand = FakeHandHolder.FAKE_HAND;
+            ToIntFunction<LivingEntity> call = entity -> entity.getItemInHand(fakeHand).getCount();
+
+            checkReached(helper, Hook.GET_ITEM_IN_HAND, entities, call);
+            checkBudget(helper, "wrapGetItemInHand", allocatedBytes(entities, call));
+        }
+        helper.succeed();
+    }
+
+    /**
+     * AerialHell's inventoryTick with the totem compat hook on must allocate no more than
+     * - with the hook off, for players without the ticked totem (the common miss path),
+     * - with the totem held in the off hand, for players wearing it as an accessory (hit path).
+     */
+    @GameTest
+    public void aerialhellTotem(GameTestHelper helper) {
+        Item totem = LoadFixture.item("aerialhell:regeneration_totem");
+        if (!FabricLoader.getInstance().isModLoaded("aerialhell") || totem == null) {
+            LOGGER.info("aerialhellTotem: AerialHell not loaded, skipped");
+            helper.succeed();
+            return;
+        }
+
+        checkSwitchedOn(helper, GustavdevConfig.HOOKS_AERIALHELL_TOTEM);
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, totem, LoadFixture.item("create:goggles"))) {
+            List<ServerPlayer> missing = new ArrayList<>();
+            List<ServerPlayer> wearing = new ArrayList<>();
+            for (int i = 0; i < fixture.players.size(); i++) {
+                (fixture.expectsTotem(i) ? wearing : missing).add(fixture.players.get(i));
+            }
+            AccessoryPrecompute.precompute();
+            ItemStack ticked = new ItemStack(totem);
+            ToIntFunction<LivingEntity> call = entity -> {
+                ticked.inventoryTick(helper.getLevel(), entity, null);
+                return 0;
+            };
+
+            checkReached(helper, Hook.AERIALHELL_TOTEM, missing, call);
+            long missOff = withHook(GustavdevConfig.HOOKS_AERIALHELL_TOTEM, false, () -> allocatedBytes(missing, call));
+            long missOn = allocatedBytes(missing, call);
+            checkBudget(helper, "checkAccessorySlotForTotem(miss)", missOn - missOff);
+
+            // Same number of calls on both sides: the loadouts alternate, so half the players wear the totem
+            long hit = allocatedBytes(wearing, call);
+            for (ServerPlayer player : missing) {
+                player.setItemInHand(InteractionHand.OFF_HAND, new ItemStack(totem));
+            }
+            long heldInHand = allocatedBytes(missing, call);
+            checkBudget(helper, "checkAccessorySlotForTotem(hit)", hit - heldInHand);
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Create's isWearingGoggles with the goggles compat hook on must allocate no more than
+     * with the hook off, for players with and without goggles in their accessory slot.
+     */
+    @GameTest
+    public void createGoggles(GameTestHelper helper) {
+        Item goggles = LoadFixture.item("create:goggles");
+        MethodHandle isWearingGoggles = HookLoadGameTest.isWearingGoggles();
+        if (goggles == null || isWearingGoggles == null) {
+            LOGGER.info("createGoggles: Create not loaded, skipped");
+            helper.succeed();
+            return;
+        }
+
+        checkSwitchedOn(helper, GustavdevConfig.HOOKS_CREATE_GOGGLES);
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, goggles)) {
+            List<ServerPlayer> players = fixture.players;
+            AccessoryPrecompute.precompute();
+            ToIntFunction<LivingEntity> call = entity ->
+                HookLoadGameTest.wearsGoggles(isWearingGoggles, (ServerPlayer) entity) ? 1 : 0;
+
+            checkReached(helper, Hook.CREATE_GOGGLES, players, call);
+            long off = withHook(GustavdevConfig.HOOKS_CREATE_GOGGLES, false, () -> allocatedBytes(players, call));
+            long on = allocatedBytes(players, call);
+            checkBudget(helper, "checkAccessoryForGoggles", on - off);
+        }
+        helper.succeed();
+    }
+
+    /**
+     * A Transfer API offer into a full player inventory must allocate no more than an
+     * insert into the same inventory. The two differ only by offer's hand loop, where
+     * skipFakeHand replaces InteractionHand.values() and its array clone.
+     */
+    @GameTest
+    public void skipFakeHand(GameTestHelper helper) {
+        if (FakeHandHolder.FAKE_HAND == null) {
+            LOGGER.info("skipFakeHand: DIRECT death protection mode, skipped");
+            helper.succeed();
+            return;
+        }
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, LoadFixture.item("create:goggles"))) {
+            List<ServerPlayer> players = fixture.players;
+            Map<LivingEntity, PlayerInventoryStorage> storages = new IdentityHashMap<>();
+            for (ServerPlayer player : players) {
+                Inventory inventory = player.getInventory();
+                for (int slot = 0; slot < Inventory.INVENTORY_SIZE; slot++) {
+                    inventory.setItem(slot, new ItemStack(Items.STONE, 64));
+                }
+                player.setItemInHand(InteractionHand.OFF_HAND, new ItemStack(Items.STONE, 64));
+                storages.put(player, PlayerInventoryStorage.of(player));
+            }
+            ItemVariant cobblestone = ItemVariant.of(Items.COBBLESTONE);
+            ToIntFunction<LivingEntity> offer = entity -> transfer(storages.get(entity), cobblestone, true);
+            ToIntFunction<LivingEntity> insert = entity -> transfer(storages.get(entity), cobblestone, false);
+
+            checkReached(helper, Hook.SKIP_FAKE_HAND, players, offer);
+            long inserted = allocatedBytes(players, insert);
+            long offered = allocatedBytes(players, offer);
+            checkBudget(helper, "skipFakeHand", offered - inserted);
+        }
+        helper.succeed();
+    }
+
+    private static int transfer(PlayerInventoryStorage storage, ItemVariant resource, boolean offer) {
+        try (Transaction transaction = Transaction.openOuter()) {
+            return (int) (offer ? storage.offer(resource, 1, transaction) : storage.insert(resource, 1, transaction));
+        }
+    }
+
+    private static List<LivingEntity> entities(LoadFixture fixture) {
+        List<LivingEntity> entities = new ArrayList<>(fixture.mobs);
+        entities.addAll(fixture.players);
+        return entities;
+    }
+
+    /**
+     * @return The total bytes the server thread allocated over RUNS calls per entity, after warming the call up
+     */
+    private static long allocatedBytes(List<? extends LivingEntity> entities, ToIntFunction<LivingEntity> call) {
+        run(entities, call, WARMUP_RUNS);
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        run(entities, call, RUNS);
+        return THREADS.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static void run(List<? extends LivingEntity> entities, ToIntFunction<LivingEntity> call, int runs) {
+        int result = 0;
+        for (int run = 0; run < runs; run++) {
+            for (int i = 0; i < entities.size(); i++) {
+                result += call.applyAsInt(entities.get(i));
+            }
+        }
+        sink += result;
+    }
+
+    /**
+     * Measures with a hook switch flipped, restoring it afterwards.
+     * Flipping relinks the switch's call sites, allocatedBytes warms the paths up again.
+     */
+    private static long withHook(String key, boolean enabled, LongSupplier measurement) {
+        boolean previous = HookSwitches.isEnabled(key);
+        HookSwitches.set(key, enabled);
+        try {
+            return measurement.getAsLong();
+        } finally {
+            HookSwitches.set(key, previous);
+        }
+    }
+
+    /**
+     * The measurements with the hook on are taken as configured, so the hook must not be switched off.
+     */
+    private static void checkSwitchedOn(GameTestHelper helper, String key) {
+        if (!HookSwitches.isEnabled(key)) {
+            helper.fail(Component.literal(key + " is switched off, the hook cannot be measured"));
+        }
+    }
+
+    /**
+     * Fails unless one run over the entities reaches the hook, so a hook that was not
+     * applied cannot pass its allocation budget by doing nothing.
+     */
+    private static void checkReached(GameTestHelper helper, Hook hook, List<? extends LivingEntity> entities, ToIntFunction<LivingEntity> call) {
+        HookMetrics.enable(helper.getLevel().getServer().getTickCount(), 1);
+        try {
+            run(entities, call, 1);
+            if (HookMetrics.calls(hook) == 0) {
+                helper.fail(Component.literal(hook.hookName() + " was never called"));
+            }
+        } finally {
+            HookMetrics.disable();
+        }
+    }
+
+    /**
+     * @param allocated The bytes the path allocated (or added) over all measured calls
+     */
+    private static void checkBudget(GameTestHelper helper, String path, long allocated) {
+        LOGGER.info("{}: {} B over {} runs", path, allocated, RUNS);
+        if (allocated > BUDGET_BYTES) {
+            helper.fail(Component.literal(path + " allocates " + allocated + " B over " + RUNS
+                + " runs, budget " + BUDGET_BYTES + " B"));
+        }
+    }
+}
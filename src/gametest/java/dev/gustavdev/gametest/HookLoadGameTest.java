@@ -0,0 +1,306 @@
+package dev.gustavdev.gametest;
+
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.gametest.mixin.LivingEntityInvoker;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
+import dev.gustavdev.util.AccessoryPrecompute;
+import dev.gustavdev.util.FakeHandHolder;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
+import net.fabricmc.fabric.api.transfer.v1.item.PlayerInventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.transaction.Transaction;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load tests for the mod's hooks on a headless server, run on demand by runGameTest.
+ * They are not part of check/build: the budgets are wall-clock times and would make
+ * every build depend on how busy the machine is.
+ * 
+ * Every scenario spawns a LoadFixture (hundreds of mobs, fake players with empty, totem,
+ * goggles and totem + goggles loadouts) and runs workload passes against the real,
+ * mixed-in hooks. A pass is one round of the scenario's hook-heavy workload over every
+ * entity, the calls one server tick would make at this load; all passes run back to back
+ * inside a single GameTest tick, so they measure the hooks, not real server ticks.
+ * While they run, HookMetrics times every call, so the time the outermost hooks add to
+ * each pass is exact rather than estimated.
+ * 
+ * Each scenario logs the mean and p99 of that per-pass time and fails when
+ * - the p99 pass time exceeds metrics.budget.tickMicros, since a pass stands for one tick's hook calls,
+ * - the p99 call cost of one of its per-call hooks exceeds metrics.budget.p99Nanos
+ *   (PRECOMPUTE runs once per pass and only counts towards the pass budget),
+ * - one of its hooks was never reached, or the hooks gave wrong results.
+ * 
+ * Scenarios for optional mods (AerialHell, Create) succeed without measuring when the
+ * mod is not loaded.
+ */
+public class HookLoadGameTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("gustavdev");
+
+    /** Workload passes before measuring, so the hooks are compiled. */
+    private static final int WARMUP_PASSES = 100;
+
+    /** Workload passes measured per scenario. */
+    private static final int PASSES = 200;
+
+    /** AerialHell totems ticked in each player's inventory by the AerialHell scenario. */
+    private static final String[] AERIALHELL_TOTEMS = {
+        "aerialhell:regeneration_totem",
+        "aerialhell:speed_totem",
+        "aerialhell:night_vision_totem"
+    };
+
+    /** isWearingGoggles calls per player and pass in the goggles scenario. */
+    private static final int GOGGLES_CHECKS = 8;
+
+    /** Transfer API offers per player and pass in the transfer scenario, e.g. from hoppers and pipes. */
+    private static final int TRANSFER_OFFERS = 4;
+
+    /**
+     * Runs vanilla's death protection for every mob and player each pass, after the
+     * precompute pass (when enabled) rebuilt the players whose totems were used up.
+     * Players with a totem loadout must be saved, everyone else must not.
+     */
+    @GameTest
+    public void deathProtection(GameTestHelper helper) {
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, LoadFixture.item("create:goggles"))) {
+            DamageSource damage = helper.getLevel().damageSources().generic();
+            List<LivingEntity> entities = new ArrayList<>(fixture.mobs);
+            entities.addAll(fixture.players);
+
+            measure(helper, "deathProtection", fixture::restockTotems, () -> {
+                AccessoryPrecompute.precompute();
+                for (int i = 0; i < entities.size(); i++) {
+                    LivingEntity entity = entities.get(i);
+                    boolean saved = ((LivingEntityInvoker) entity).gustavdev$checkTotemDeathProtection(damage);
+                    int player = i - fixture.mobs.size();
+                    boolean expected = player >= 0 && fixture.expectsTotem(player);
+                    if (saved != expected) {
+                        helper.fail(Component.literal(entity.getName().getString()
+                            + (expected ? " was not saved by its accessory totem" : " was saved without a totem")));
+                    }
+                }
+            }, deathProtectionHooks());
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Ticks AerialHell effect totems in every player's inventory, the way AerialHell does
+     * each inventory tick. Players with a totem loadout wear a regeneration totem.
+     */
+    @GameTest
+    public void aerialhellInventoryTick(GameTestHelper helper) {
+        Item accessoryTotem = LoadFixture.item(AERIALHELL_TOTEMS[0]);
+        if (!FabricLoader.getInstance().isModLoaded("aerialhell") || accessoryTotem == null) {
+            LOGGER.info("aerialhellInventoryTick: AerialHell not loaded, skipped");
+            helper.succeed();
+            return;
+        }
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, accessoryTotem, LoadFixture.item("create:goggles"))) {
+            List<ItemStack> ticked = new ArrayList<>();
+            for (String id : AERIALHELL_TOTEMS) {
+                Item item = LoadFixture.item(id);
+                if (item != null) {
+                    ticked.add(new ItemStack(item));
+                }
+            }
+
+            measure(helper, "aerialhellInventoryTick", () -> {}, () -> {
+                for (ServerPlayer player : fixture.players) {
+                    for (int i = 0; i < ticked.size(); i++) {
+                        ticked.get(i).inventoryTick(helper.getLevel(), player, null);
+                    }
+                }
+            }, Hook.AERIALHELL_TOTEM);
+
+            if (HookMetrics.hits(Hook.AERIALHELL_TOTEM) == 0) {
+                helper.fail(Component.literal("No AerialHell totem was found in an accessory slot"));
+            }
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Asks Create whether every player wears goggles, several times per pass like its
+     * overlays and goggle-gated logic do. Must match the players' goggles loadouts.
+     */
+    @GameTest
+    public void createGoggles(GameTestHelper helper) {
+        Item goggles = LoadFixture.item("create:goggles");
+        MethodHandle isWearingGoggles = isWearingGoggles();
+        if (goggles == null || isWearingGoggles == null) {
+            LOGGER.info("createGoggles: Create not loaded, skipped");
+            helper.succeed();
+            return;
+        }
+
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, goggles)) {
+            measure(helper, "createGoggles", () -> {}, () -> {
+                for (int i = 0; i < fixture.players.size(); i++) {
+                    Player player = fixture.players.get(i);
+                    for (int check = 0; check < GOGGLES_CHECKS; check++) {
+                        if (wearsGoggles(isWearingGoggles, player) != fixture.expectsGoggles(i)) {
+                            helper.fail(Component.literal(player.getName().getString()
+                                + " goggles do not match its loadout " + fixture.loadout(i)));
+                        }
+                    }
+                }
+            }, Hook.CREATE_GOGGLES);
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Offers items to every player's inventory through the Transfer API, in transactions
+     * that are aborted so the inventories stay as they are. An offer that reached
+     * FAKE_HAND would throw from Fabric API's hand lookup, and must not touch the
+     * accessory totems either.
+     * 
+     * skipFakeHand only hands out a constant array and is counted, not timed, so this
+     * scenario checks that the offers reach it; HookAllocationGameTest covers its cost.
+     */
+    @GameTest
+    public void transferOffer(GameTestHelper helper) {
+        try (LoadFixture fixture = LoadFixture.spawn(helper, Items.TOTEM_OF_UNDYING, LoadFixture.item("create:goggles"))) {
+            List<PlayerInventoryStorage> storages = new ArrayList<>();
+            for (ServerPlayer player : fixture.players) {
+                storages.add(PlayerInventoryStorage.of(player));
+            }
+            ItemVariant cobblestone = ItemVariant.of(Items.COBBLESTONE);
+
+            measure(helper, "transferOffer", () -> {}, () -> {
+                for (int i = 0; i < storages.size(); i++) {
+                    for (int offer = 0; offer < TRANSFER_OFFERS; offer++) {
+                        try (Transaction transaction = Transaction.openOuter()) {
+                            if (storages.get(i).offer(cobblestone, 1, transaction) != 1) {
+                                helper.fail(Component.literal("Offer to an empty inventory was not accepted"));
+                            }
+                        }
+                    }
+                }
+            }, FakeHandHolder.FAKE_HAND != null ? new Hook[] { Hook.SKIP_FAKE_HAND } : new Hook[0]);
+
+            for (int i = 0; i < fixture.players.size(); i++) {
+                if (fixture.expectsTotem(i) && fixture.totemSlot(i).getCount() != 1) {
+                    helper.fail(Component.literal("Transfer offers changed an accessory totem"));
+                }
+            }
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Runs warm-up and measured workload passes of a scenario and checks them against the budgets.
+     * @param scenario The scenario name used in the report
+     * @param prepare Untimed setup before each pass, e.g. re-equipping used totems
+     * @param pass One pass of the workload
+     * @param hooks The hooks the scenario must reach, the timed ones are checked against the p99 call budget
+     */
+    private static void measure(GameTestHelper helper, String scenario, Runnable prepare, Runnable pass, Hook... hooks) {
+        int serverTick = helper.getLevel().getServer().getTickCount();
+        HookMetrics.enable(serverTick, 1);
+        try {
+            for (int i = 0; i < WARMUP_PASSES; i++) {
+                prepare.run();
+                pass.run();
+            }
+
+            HookMetrics.reset(serverTick);
+            PassStats stats = new PassStats(PASSES);
+            for (int i = 0; i < PASSES; i++) {
+                prepare.run();
+                long before = HookMetrics.outermostSampledNanos();
+                pass.run();
+                stats.add(HookMetrics.outermostSampledNanos() - before);
+            }
+
+            checkBudgets(helper, scenario, stats, hooks);
+        } finally {
+            HookMetrics.disable();
+        }
+    }
+
+    private static void checkBudgets(GameTestHelper helper, String scenario, PassStats stats, Hook... hooks) {
+        // One pass makes the hook calls of one server tick at this load, so it gets the tick budget
+        long passBudget = GustavdevConfig.metricsBudgetTickMicros() * 1_000L;
+        long p99Budget = GustavdevConfig.metricsBudgetP99Nanos();
+
+        LOGGER.info("{}: {} mobs, {} players, hooks add mean {} ns, p99 {} ns per workload pass over {} passes",
+            scenario, LoadFixture.MOBS, LoadFixture.PLAYERS, stats.meanNanos(), stats.p99Nanos(), stats.passes());
+        for (Hook hook : hooks) {
+            if (hook.timed()) {
+                LOGGER.info("{}: {} {} calls, mean {} ns, p99 <= {} ns",
+                    scenario, hook.hookName(), HookMetrics.calls(hook), HookMetrics.meanNanos(hook), HookMetrics.p99Nanos(hook));
+            } else {
+                LOGGER.info("{}: {} {} calls (counted only)", scenario, hook.hookName(), HookMetrics.calls(hook));
+            }
+        }
+
+        for (Hook hook : hooks) {
+            if (HookMetrics.calls(hook) == 0) {
+                helper.fail(Component.literal(scenario + ": " + hook.hookName() + " was never called"));
+            }
+            if (hook.timed() && HookMetrics.p99Nanos(hook) > p99Budget) {
+                helper.fail(Component.literal(scenario + ": " + hook.hookName() + " p99 <= "
+                    + HookMetrics.p99Nanos(hook) + " ns exceeds budget " + p99Budget + " ns"));
+            }
+        }
+        if (stats.p99Nanos() > passBudget) {
+            helper.fail(Component.literal(scenario + ": hooks add p99 " + stats.p99Nanos()
+                + " ns per workload pass, exceeds budget " + passBudget + " ns"));
+        }
+    }
+
+    /**
+     * In FAKE_HAND mode vanilla's hand loop reaches the accessory totem through wrapGetItemInHand,
+     * in DIRECT mode the death protection mixin reads it without a timed hook.
+     */
+    private static Hook[] deathProtectionHooks() {
+        return FakeHandHolder.FAKE_HAND != null ? new Hook[] { Hook.GET_ITEM_IN_HAND } : new Hook[0];
+    }
+
+    /**
+     * @return Create's GogglesItem.isWearingGoggles, or null if Create is not loaded
+     */
+    static MethodHandle isWearingGoggles() {
+        if (!FabricLoader.getInstance().isModLoaded("create")) {
+            return null;
+        }
+        try {
+            Class<?> gogglesItem = Class.forName(
+                "com.zurrtum.create.content.equipment.goggles.GogglesItem", true, HookLoadGameTest.class.getClassLoader());
+            return MethodHandles.publicLookup().findStatic(
+                gogglesItem, "isWearingGoggles", MethodType.methodType(boolean.class, Player.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Create is loaded but GogglesItem.isWearingGoggles was not found", e);
+        }
+    }
+
+    static boolean wearsGoggles(MethodHandle isWearingGoggles, Player player) {
+        try {
+            return (boolean) isWearingGoggles.invokeExact(player);
+        } catch (Throwable e) {
+            throw new IllegalStateException("GogglesItem.isWearingGoggles failed", e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.gustavdev.gametest;
+
+import dev.gustavdev.util.AccessoryUtil;
+import io.wispforest.accessories.api.AccessoriesCapability;
+import io.wispforest.accessories.api.AccessoriesContainer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A loaded server for the hook tests: hundreds of mobs without accessory slots and
+ * fake players cycling through the empty, totem, goggles and totem + goggles loadouts.
+ * 
+ * Mobs stand on a small grid inside the test structure and are never ticked by the
+ * tests themselves, the players are mock server players with a real connection.
+ * close() removes everything again, so tests can run one after another.
+ */
+final class LoadFixture implements AutoCloseable {
+
+    static final int MOBS = 320;
+
+    static final int PLAYERS = 64;
+
+    /** Accessory loadouts, assigned to the players in turn. */
+    enum Loadout {
+        EMPTY(false, false),
+        TOTEM(true, false),
+        GOGGLES(false, true),
+        TOTEM_AND_GOGGLES(true, true);
+
+        final boolean totem;
+        final boolean goggles;
+
+        Loadout(boolean totem, boolean goggles) {
+            this.totem = totem;
+            this.goggles = goggles;
+        }
+    }
+
+    private final GameTestHelper helper;
+    private final Item totem;
+    private final Item goggles;
+    final List<LivingEntity> mobs = new ArrayList<>(MOBS);
+    final List<ServerPlayer> players = new ArrayList<>(PLAYERS);
+
+    /**
+     * @param totem The item placed in the totem slot of totem loadouts
+     * @param goggles The item placed in the goggles slot of goggles loadouts, null to leave it empty
+     */
+    private LoadFixture(GameTestHelper helper, Item totem, Item goggles) {
+        this.helper = helper;
+        this.totem = totem;
+        this.goggles = goggles;
+    }
+
+    static LoadFixture spawn(GameTestHelper helper, Item totem, Item goggles) {
+        LoadFixture fixture = new LoadFixture(helper, totem, goggles);
+        for (int i = 0; i < MOBS; i++) {
+            BlockPos pos = new BlockPos(1 + i % 6, 2, 1 + (i / 6) % 6);
+            fixture.mobs.add(helper.spawn(i % 2 == 0 ? EntityType.PIG : EntityType.ARMOR_STAND, pos));
+        }
+        for (int i = 0; i < PLAYERS; i++) {
+            ServerPlayer player = helper.makeMockServerPlayerInLevel();
+            fixture.players.add(player);
+            fixture.equip(i);
+        }
+        return fixture;
+    }
+
+    /**
+     * @return The registered item, or null if its mod is not loaded
+     */
+    static Item item(String id) {
+        return BuiltInRegistries.ITEM.getOptional(Identifier.parse(id)).orElse(null);
+    }
+
+    Loadout loadout(int player) {
+        return Loadout.values()[player % Loadout.values().length];
+    }
+
+    boolean expectsTotem(int player) {
+        return loadout(player).totem;
+    }
+
+    boolean expectsGoggles(int player) {
+        return loadout(player).goggles && this.goggles != null;
+    }
+
+    /**
+     * Puts the player's loadout into its accessory slots and invalidates its cache,
+     * like the accessory change callback would.
+     */
+    void equip(int player) {
+        Loadout loadout = loadout(player);
+        setSlot(player, AccessoryUtil.TOTEM_SLOT, loadout.totem ? new ItemStack(this.totem) : ItemStack.EMPTY);
+        setSlot(player, AccessoryUtil.GOGGLES_SLOT, expectsGoggles(player) ? new ItemStack(this.goggles) : ItemStack.EMPTY);
+    }
+
+    /**
+     * Re-equips the totems that death protection used up.
+     */
+    void restockTotems() {
+        for (int i = 0; i < this.players.size(); i++) {
+            if (expectsTotem(i) && totemSlot(i).isEmpty()) {
+                setSlot(i, AccessoryUtil.TOTEM_SLOT, new ItemStack(this.totem));
+            }
+        }
+    }
+
+    ItemStack totemSlot(int player) {
+        return container(player, AccessoryUtil.TOTEM_SLOT).getItem(0);
+    }
+
+    private void setSlot(int player, String slotName, ItemStack stack) {
+        container(player, slotName).setItem(0, stack);
+        AccessoryUtil.invalidate(this.players.get(player));
+    }
+
+    private Container container(int player, String slotName) {
+        AccessoriesCapability capability = AccessoriesCapability.get(this.players.get(player));
+        AccessoriesContainer container = capability == null ? null : capability.getContainers().get(slotName);
+        if (container == null) {
+            this.helper.fail(Component.literal("Player has no " + slotName + " accessory slot"));
+        }
+        return container.getAccessories();
+    }
+
+    @Override
+    public void close() {
+        for (ServerPlayer player : this.players) {
+            this.helper.getLevel().getServer().getPlayerList().remove(player);
+        }
+        for (LivingEntity mob : this.mobs) {
+            mob.discard();
+        }
+    }
+}
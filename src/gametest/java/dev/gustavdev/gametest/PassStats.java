@@ -0,0 +1,48 @@
+package dev.gustavdev.gametest;
+
+import java.util.Arrays;
+
+/**
+ * Per-pass costs collected by a load scenario, with their mean and 99th percentile.
+ */
+final class PassStats {
+
+    private final long[] nanos;
+    private int count;
+
+    PassStats(int passes) {
+        this.nanos = new long[passes];
+    }
+
+    void add(long passNanos) {
+        this.nanos[this.count++] = passNanos;
+    }
+
+    int passes() {
+        return this.count;
+    }
+
+    long meanNanos() {
+        if (this.count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < this.count; i++) {
+            total += this.nanos[i];
+        }
+        return total / this.count;
+    }
+
+    /**
+     * @return The nearest-rank 99th percentile of the per-pass costs
+     */
+    long p99Nanos() {
+        if (this.count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(this.nanos, this.count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(this.count * 0.99);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
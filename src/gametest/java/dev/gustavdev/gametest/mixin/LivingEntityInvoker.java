@@ -0,0 +1,17 @@
+package dev.gustavdev.gametest.mixin;
+
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * Exposes vanilla's death protection check, so the load tests can run it
+ * without actually killing entities. Used by HookLoadGameTest.
+ */
+@Mixin(LivingEntity.class)
+public interface LivingEntityInvoker {
+
+    @Invoker("checkTotemDeathProtection")
+    boolean gustavdev$checkTotemDeathProtection(DamageSource damageSource);
+}
@@ -0,0 +1,105 @@
+package dev.gustavdev.benchmark;
+
+import dev.gustavdev.util.AccessoryQuery;
+import dev.gustavdev.util.AccessorySnapshot;
+import dev.gustavdev.util.AccessoryUtil;
+import dev.gustavdev.util.GameplayUtil;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the ways AccessoryUtil resolves the first equipped totem:
+ * - getEquippedFirst: the original getEquipped(predicate).get(0), allocating a list per call
+ * - firstMatchWalk: AccessoryUtil.firstMatch over the capability's slot containers map, as in getAccessoryStack
+ * - snapshotRead: the first live totem of the published AccessorySnapshot, as read by getTotemStack
+ * 
+ * And what it costs to rebuild that snapshot after a change, with the real
+ * AccessoryUtil.offerAll and AccessorySnapshot.of:
+ * - rebuildSlotScoped: only the dedicated totem/goggles/elytra slots (the default)
+ * - rebuildFullScan: every slot container (accessories.fullScan)
+ * 
+ * All of them test stacks with the real GameplayUtil.isTotem. The entity-bound parts
+ * (the capability lookup, the FAKE_HAND dispatch in LivingEntityMixin) need a running
+ * server and are covered by the GameTest suites instead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccessoryLookupBenchmark {
+
+    @Param({"0", "1", "16"})
+    public int equipped;
+
+    private StubCapability capability;
+    private Container[] containers;
+    private Container[] categoryContainers;
+    private AccessoryQuery query;
+    private AccessorySnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        this.capability = Fixtures.loadout(this.equipped);
+        this.containers = Fixtures.containers(this.capability);
+        this.categoryContainers = Fixtures.categoryContainers(this.capability);
+        this.query = Fixtures.query();
+        this.snapshot = Fixtures.snapshot(Fixtures.query(), this.categoryContainers);
+    }
+
+    @Benchmark
+    public ItemStack getEquippedFirst() {
+        List<StubCapability.SlotEntry> accessories = this.capability.getEquipped(GameplayUtil::isTotem);
+        if (!accessories.isEmpty()) {
+            return accessories.get(0).stack();
+        }
+        return ItemStack.EMPTY;
+    }
+
+    @Benchmark
+    public ItemStack firstMatchWalk() {
+        for (Container accessories : this.capability.containers.values()) {
+            ItemStack stack = AccessoryUtil.firstMatch(accessories, GameplayUtil::isTotem);
+            if (!stack.isEmpty()) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    @Benchmark
+    public ItemStack snapshotRead() {
+        for (int i = 0, count = this.snapshot.totemCount(); i < count; i++) {
+            ItemStack stack = this.snapshot.totem(i);
+            if (!stack.isEmpty()) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    @Benchmark
+    public AccessorySnapshot rebuildSlotScoped() {
+        return Fixtures.snapshot(this.query, this.categoryContainers);
+    }
+
+    @Benchmark
+    public AccessorySnapshot rebuildFullScan() {
+        return Fixtures.snapshot(this.query, this.containers);
+    }
+}
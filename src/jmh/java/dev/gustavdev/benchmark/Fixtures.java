@@ -0,0 +1,117 @@
+package dev.gustavdev.benchmark;
+
+import dev.gustavdev.util.AccessoryCategory;
+import dev.gustavdev.util.AccessoryQuery;
+import dev.gustavdev.util.AccessorySnapshot;
+import dev.gustavdev.util.AccessoryUtil;
+import dev.gustavdev.util.GameplayUtil;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.TagKey;
+import net.minecraft.tags.TagLoader;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared game state and loadouts for the benchmarks.
+ * 
+ * The game's registries are bootstrapped once, without a server or a client, and the
+ * accessories tags are bound to a few vanilla items: the totem of undying (which also
+ * carries DEATH_PROTECTION), a leather helmet standing in for Create's goggles and the
+ * elytra. The stacks are real ItemStacks in real containers and every lookup goes
+ * through the mod's own code (GameplayUtil, AccessoryUtil, AccessoryQuery, AccessorySnapshot).
+ * 
+ * Loadouts mirror the server: the mod's own totem/goggles/elytra slots plus
+ * filler slots from other mods holding unrelated accessories.
+ */
+final class Fixtures {
+
+    static final TagKey<Item> TOTEM_TAG = tag("totem");
+    static final TagKey<Item> GOGGLES_TAG = tag("goggles");
+    static final TagKey<Item> ELYTRA_TAG = tag("elytra");
+
+    static {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        BuiltInRegistries.ITEM.prepareTagReload(new TagLoader.LoadResult<>(Registries.ITEM, Map.of(
+            TOTEM_TAG, List.of(Items.TOTEM_OF_UNDYING.builtInRegistryHolder()),
+            GOGGLES_TAG, List.of(Items.LEATHER_HELMET.builtInRegistryHolder()),
+            ELYTRA_TAG, List.of(Items.ELYTRA.builtInRegistryHolder())
+        ))).apply();
+        GameplayUtil.rebuildClassification();
+    }
+
+    static final Item TOTEM = Items.TOTEM_OF_UNDYING;
+    static final Item GOGGLES = Items.LEATHER_HELMET;
+    static final Item RING = Items.GOLD_NUGGET;
+
+    private Fixtures() {
+    }
+
+    private static TagKey<Item> tag(String path) {
+        return TagKey.create(Registries.ITEM, Identifier.fromNamespaceAndPath("accessories", path));
+    }
+
+    /** Flattens a loadout into its stacks, in slot order. */
+    static ItemStack[] stacks(StubCapability capability) {
+        return capability.containers.values().stream()
+            .flatMap(accessories -> accessories.getItems().stream())
+            .toArray(ItemStack[]::new);
+    }
+
+    /** Every slot container of a loadout, in slot order, as read by the full scan. */
+    static Container[] containers(StubCapability capability) {
+        return capability.containers.values().toArray(Container[]::new);
+    }
+
+    /** The dedicated slot container of every category, as read by the slot-scoped query. */
+    static Container[] categoryContainers(StubCapability capability) {
+        AccessoryCategory[] categories = AccessoryCategory.values();
+        Container[] containers = new Container[categories.length];
+        for (int i = 0; i < categories.length; i++) {
+            containers[i] = capability.containers.get(categories[i].slotName());
+        }
+        return containers;
+    }
+
+    /** A query over every category, like AccessoryCache.query. */
+    static AccessoryQuery query() {
+        return new AccessoryQuery(AccessoryCategory.values());
+    }
+
+    /** Resolves the containers into a snapshot the way AccessoryUtil rebuilds one. */
+    static AccessorySnapshot snapshot(AccessoryQuery query, Container[] containers) {
+        query.clear();
+        for (Container accessories : containers) {
+            AccessoryUtil.offerAll(accessories, query);
+        }
+        return AccessorySnapshot.of(true, 0, query);
+    }
+
+    /**
+     * Builds a capability with the given number of equipped accessories.
+     * 0 is an empty loadout, 1 is a single totem in the totem slot, anything larger
+     * adds goggles and fills the remaining slots with unrelated accessories placed
+     * before the mod's slots, so lookups have to walk past them.
+     */
+    static StubCapability loadout(int equipped) {
+        StubCapability capability = new StubCapability();
+        int filler = Math.max(0, equipped - 2);
+        for (int i = 0; i < filler; i++) {
+            capability.containers.put("other_" + i, new SimpleContainer(new ItemStack(RING)));
+        }
+        capability.containers.put(AccessoryUtil.TOTEM_SLOT, new SimpleContainer(equipped >= 1 ? new ItemStack(TOTEM) : ItemStack.EMPTY));
+        capability.containers.put(AccessoryUtil.GOGGLES_SLOT, new SimpleContainer(equipped >= 2 ? new ItemStack(GOGGLES) : ItemStack.EMPTY));
+        capability.containers.put(AccessoryUtil.ELYTRA_SLOT, new SimpleContainer(ItemStack.EMPTY));
+        return capability;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.gustavdev.benchmark;
+
+import dev.gustavdev.util.GameplayUtil;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.world.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks GameplayUtil.isTotem / isGoggles / isElytra over every equipped stack:
+ * - tagLookup: the unmodified checks, a tag lookup plus the DEATH_PROTECTION component lookup
+ * - classificationTable: the real GameplayUtil methods, answered from the classification table
+ *   (a registry raw ID lookup per stack, then an array read)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemClassificationBenchmark {
+
+    @Param({"0", "1", "16"})
+    public int equipped;
+
+    private ItemStack[] stacks;
+
+    @Setup
+    public void setup() {
+        this.stacks = Fixtures.stacks(Fixtures.loadout(this.equipped));
+    }
+
+    @Benchmark
+    public void tagLookup(Blackhole blackhole) {
+        for (ItemStack stack : this.stacks) {
+            blackhole.consume(!stack.isEmpty() && (stack.is(Fixtures.TOTEM_TAG) || stack.has(DataComponents.DEATH_PROTECTION)));
+            blackhole.consume(!stack.isEmpty() && stack.is(Fixtures.GOGGLES_TAG));
+            blackhole.consume(!stack.isEmpty() && stack.is(Fixtures.ELYTRA_TAG));
+        }
+    }
+
+    @Benchmark
+    public void classificationTable(Blackhole blackhole) {
+        for (ItemStack stack : this.stacks) {
+            blackhole.consume(GameplayUtil.isTotem(stack));
+            blackhole.consume(GameplayUtil.isGoggles(stack));
+            blackhole.consume(GameplayUtil.isElytra(stack));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dev.gustavdev.benchmark;
+
+import dev.gustavdev.util.FakeHandHolder;
+import net.minecraft.world.InteractionHand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks PlayerInventoryStorageImplMixin.skipFakeHand as seen by a Transfer API offer,
+ * which iterates the returned hands:
+ * - filterPerCall: FakeHandHolder.realHands() on every call
+ * - sharedRealHands: the real hands filtered once with FakeHandHolder.realHands(), as the mixin keeps them
+ * 
+ * Mixins are not applied here, so InteractionHand has no FAKE_HAND and the filter keeps
+ * both hands: filterPerCall measures the values() clone and the filter loop.
+ * Independent of the equipped accessories, so there is no loadout parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SkipFakeHandBenchmark {
+
+    private static final InteractionHand[] REAL_HANDS = FakeHandHolder.realHands();
+
+    @Benchmark
+    public void filterPerCall(Blackhole blackhole) {
+        for (InteractionHand hand : FakeHandHolder.realHands()) {
+            blackhole.consume(hand);
+        }
+    }
+
+    @Benchmark
+    public void sharedRealHands(Blackhole blackhole) {
+        for (InteractionHand hand : REAL_HANDS) {
+            blackhole.consume(hand);
+        }
+    }
+}
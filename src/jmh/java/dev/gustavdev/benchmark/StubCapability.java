@@ -0,0 +1,39 @@
+package dev.gustavdev.benchmark;
+
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Stand-in for AccessoriesCapability: named slot containers holding real stacks.
+ * 
+ * The containers play the part of AccessoriesContainer.getAccessories(), which is
+ * what AccessoryUtil walks.
+ */
+final class StubCapability {
+
+    /** Models SlotEntryReference, allocated per match by getEquipped. */
+    record SlotEntry(String slotName, int index, ItemStack stack) {}
+
+    final Map<String, Container> containers = new LinkedHashMap<>();
+
+    /** Models AccessoriesCapability.getEquipped(predicate), building a list of every match. */
+    List<SlotEntry> getEquipped(Predicate<ItemStack> predicate) {
+        List<SlotEntry> result = new ArrayList<>();
+        for (Map.Entry<String, Container> entry : this.containers.entrySet()) {
+            Container accessories = entry.getValue();
+            for (int i = 0; i < accessories.getContainerSize(); i++) {
+                ItemStack stack = accessories.getItem(i);
+                if (!stack.isEmpty() && predicate.test(stack)) {
+                    result.add(new SlotEntry(entry.getKey(), i, stack));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package dev.gustavdev;
+
+import dev.gustavdev.command.GustavdevCommand;
+import dev.gustavdev.feature.NoCreeperGrief;
+import dev.gustavdev.network.AccessoryFlagsSync;
+import dev.gustavdev.util.AccessoryPrecompute;
+import dev.gustavdev.util.AccessoryUtil;
+import dev.gustavdev.util.GameplayUtil;
+import dev.gustavdev.util.MixinTimings;
+import io.wispforest.accessories.api.events.AccessoryChangeCallback;
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Common entrypoint of the mod.
+ * 
+ * Most functionality lives in mixins; this only wires up the events
+ * that keep the mod's runtime state in sync with the game.
+ */
+public class GustavdevMod implements ModInitializer {
+
+    public static final String MOD_ID = "gustavdev";
+    public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
+
+    @Override
+    public void onInitialize() {
+        // Keep AccessoryUtil's per-entity caches in sync with the accessory containers
+        AccessoryChangeCallback.EVENT.register((prevStack, currentStack, reference, stateChange) ->
+            AccessoryUtil.invalidate(reference.entity())
+        );
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, damageSource) ->
+            AccessoryUtil.invalidate(entity)
+        );
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) ->
+            AccessoryUtil.invalidateAll(server)
+        );
+        AccessoryPrecompute.register();
+
+        // Item classification used by GameplayUtil depends on the loaded tags
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) ->
+            GameplayUtil.rebuildClassification()
+        );
+
+        NoCreeperGrief.register();
+        AccessoryFlagsSync.register();
+        GustavdevCommand.register();
+
+        // Report how long our mixins took to apply, most targets are loaded by now
+        ServerLifecycleEvents.SERVER_STARTED.register(server ->
+            MixinTimings.report(LOGGER)
+        );
+    }
+}
@@ -0,0 +1,201 @@
+package dev.gustavdev.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Operator command of the mod.
+ * 
+ * /gustavdev metrics                  - print calls per tick, hit ratio, mean and p99 cost per hook
+ * /gustavdev metrics enable|disable   - start (and reset) or stop collecting hook metrics
+ * /gustavdev metrics reset            - start a new measurement window
+ * /gustavdev metrics check            - compare the current window against the configured budgets
+ * /gustavdev hooks                    - list the hook switches and their state
+ * /gustavdev hooks <hook> on|off      - flip a hook switch until the next restart or reload
+ * /gustavdev hooks reload             - reload the config and reset all hook switches to it
+ * 
+ * The check succeeds (result 1) only if every hook's p99 is within metrics.budget.p99Nanos
+ * and all hooks together add no more than metrics.budget.tickMicros per tick. Run it on a
+ * loaded staging server after a representative window, or from a script via
+ * "execute store success", to catch regressions before they reach production.
+ */
+public class GustavdevCommand {
+
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+            register(dispatcher)
+        );
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("gustavdev")
+            .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+            .then(Commands.literal("metrics")
+                .executes(context -> reportMetrics(context.getSource()))
+                .then(Commands.literal("enable")
+                    .executes(context -> {
+                        HookMetrics.enable(context.getSource().getServer().getTickCount());
+                        context.getSource().sendSuccess(() -> Component.literal("Hook metrics enabled"), true);
+                        return 1;
+                    }))
+                .then(Commands.literal("disable")
+                    .executes(context -> {
+                        HookMetrics.disable();
+                        context.getSource().sendSuccess(() -> Component.literal("Hook metrics disabled"), true);
+                        return 1;
+                    }))
+                .then(Commands.literal("reset")
+                    .executes(context -> {
+                        HookMetrics.reset(context.getSource().getServer().getTickCount());
+                        context.getSource().sendSuccess(() -> Component.literal("Hook metrics reset"), false);
+                        return 1;
+                    }))
+                .then(Commands.literal("check")
+                    .executes(context -> checkBudgets(context.getSource()))))
+            .then(hooksCommand())
+        );
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> hooksCommand() {
+        LiteralArgumentBuilder<CommandSourceStack> hooks = Commands.literal("hooks")
+            .executes(context -> reportHooks(context.getSource()))
+            .then(Commands.literal("reload")
+                .executes(context -> {
+                    GustavdevConfig.load();
+                    HookSwitches.reload();
+                    context.getSource().sendSuccess(() -> Component.literal("Hook switches reloaded from config"), true);
+                    return reportHooks(context.getSource());
+                }));
+
+        for (String key : HookSwitches.keys()) {
+            String name = hookName(key);
+            hooks.then(Commands.literal(name)
+                .then(Commands.literal("on")
+                    .executes(context -> setHook(context.getSource(), key, true)))
+                .then(Commands.literal("off")
+                    .executes(context -> setHook(context.getSource(), key, false))));
+        }
+        return hooks;
+    }
+
+    private static int setHook(CommandSourceStack source, String key, boolean enabled) {
+        HookSwitches.set(key, enabled);
+        source.sendSuccess(() -> Component.literal(
+            "Hook " + hookName(key) + " switched " + (enabled ? "on" : "off")
+        ), true);
+        return 1;
+    }
+
+    private static int reportHooks(CommandSourceStack source) {
+        for (String key : HookSwitches.keys()) {
+            String line = hookName(key) + ": " + (HookSwitches.isEnabled(key) ? "on" : "off");
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    /**
+     * Command name of a hook switch, its config key without the "hooks." prefix.
+     */
+    private static String hookName(String key) {
+        return key.substring(key.indexOf('.') + 1);
+    }
+
+    private static int reportMetrics(CommandSourceStack source) {
+        if (!HookMetrics.isEnabled()) {
+            source.sendFailure(Component.literal("Hook metrics are disabled, use /gustavdev metrics enable"));
+            return 0;
+        }
+
+        int ticks = Math.max(1, source.getServer().getTickCount() - HookMetrics.startTick());
+        source.sendSuccess(() -> Component.literal("Hook metrics over " + ticks + " ticks:"), false);
+
+        for (Hook hook : Hook.values()) {
+            long calls = HookMetrics.calls(hook);
+            if (!hook.timed()) {
+                String line = String.format("%s: %.1f calls/tick (counted only)", hook.hookName(), (double) calls / ticks);
+                source.sendSuccess(() -> Component.literal(line), false);
+                continue;
+            }
+
+            long hits = HookMetrics.hits(hook);
+            long mean = HookMetrics.meanNanos(hook);
+            long p99 = HookMetrics.p99Nanos(hook);
+
+            String line = String.format(
+                "%s%s: %.1f calls/tick, %.1f%% hits, mean %s, p99 %s",
+                hook.hookName(),
+                hook.nested() ? " (nested)" : "",
+                (double) calls / ticks,
+                calls == 0 ? 0.0 : 100.0 * hits / calls,
+                mean < 0 ? "n/a" : formatNanos(mean),
+                p99 < 0 ? "n/a" : "<= " + formatNanos(p99)
+            );
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int checkBudgets(CommandSourceStack source) {
+        if (!HookMetrics.isEnabled()) {
+            source.sendFailure(Component.literal("Hook metrics are disabled, use /gustavdev metrics enable"));
+            return 0;
+        }
+
+        int ticks = Math.max(1, source.getServer().getTickCount() - HookMetrics.startTick());
+        long p99Budget = GustavdevConfig.metricsBudgetP99Nanos();
+        long tickBudget = GustavdevConfig.metricsBudgetTickMicros() * 1_000L;
+        boolean withinBudget = true;
+
+        for (Hook hook : Hook.values()) {
+            long p99 = HookMetrics.p99Nanos(hook);
+            if (!hook.timed() || p99 < 0) {
+                continue;
+            }
+
+            if (p99 > p99Budget) {
+                withinBudget = false;
+                String line = String.format(
+                    "%s: p99 <= %s exceeds budget %s",
+                    hook.hookName(), formatNanos(p99), formatNanos(p99Budget)
+                );
+                source.sendFailure(Component.literal(line));
+            }
+        }
+
+        // Nested hooks are already part of their callers' time
+        long addedPerTick = HookMetrics.totalNanosPerTick(ticks);
+        if (addedPerTick > tickBudget) {
+            withinBudget = false;
+            source.sendFailure(Component.literal(
+                "Hooks add " + formatNanos(addedPerTick) + "/tick, exceeds budget " + formatNanos(tickBudget)
+            ));
+        }
+
+        if (!withinBudget) {
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal(
+            "Hook metrics within budget over " + ticks + " ticks, " + formatNanos(addedPerTick) + "/tick added"
+        ), false);
+        return 1;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format("%.1f us", nanos / 1_000.0);
+        }
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,250 @@
+package dev.gustavdev.config;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The mod's configuration, stored in config/gustavdev.properties.
+ * 
+ * Loaded by GustavdevMixinPlugin before any mixin is applied, since some options decide
+ * which mixins are applied at all. Missing keys are written back with their defaults,
+ * so the file always lists every available option.
+ * 
+ * Note: this class must not reference any game classes, it is loaded during mixin setup.
+ */
+public class GustavdevConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("gustavdev");
+
+    private static final String FILE_NAME = "gustavdev.properties";
+
+    public static final String DEATH_PROTECTION_MODE = "deathProtection.mode";
+
+    public static final String ACCESSORIES_FULL_SCAN = "accessories.fullScan";
+
+    public static final String ACCESSORIES_PRECOMPUTE = "accessories.precompute";
+
+    public static final String ACCESSORIES_PRECOMPUTE_THREADS = "accessories.precomputeThreads";
+
+    public static final String ACCESSORIES_PRECOMPUTE_PARALLEL_THRESHOLD = "accessories.precomputeParallelThreshold";
+
+    public static final String HOOKS_ACCESSORY_TOTEM = "hooks.accessoryTotem";
+
+    public static final String HOOKS_ACCESSORY_ELYTRA = "hooks.accessoryElytra";
+
+    public static final String HOOKS_AERIALHELL_TOTEM = "hooks.aerialhellTotem";
+
+    public static final String HOOKS_CREATE_GOGGLES = "hooks.createGoggles";
+
+    public static final String METRICS_BUDGET_P99_NANOS = "metrics.budget.p99Nanos";
+
+    public static final String METRICS_BUDGET_TICK_MICROS = "metrics.budget.tickMicros";
+
+    /**
+     * All options in file order, with their defaults and the comment written above them.
+     */
+    private static final List<Option> OPTIONS = List.of(
+        new Option(DEATH_PROTECTION_MODE, DeathProtectionMode.FAKE_HAND.name(),
+            "How accessory totems provide death protection (requires a restart).\n"
+                + "FAKE_HAND: adds a fake hand to InteractionHand so vanilla's hand loop sees the totem.\n"
+                + "DIRECT: leaves InteractionHand untouched and checks the accessory totem on death only."),
+        new Option(ACCESSORIES_FULL_SCAN, "false",
+            "Whether totems and goggles are also looked for in accessory slots of other mods.\n"
+                + "false: only the mod's own totem and goggles slots are read.\n"
+                + "true: every accessory slot is scanned, slower with many slots."),
+        new Option(ACCESSORIES_PRECOMPUTE, "false",
+            "Whether players' accessory snapshots are rebuilt in one pass at the start of each server tick,\n"
+                + "before the hooks and the accessory flags sync read them.\n"
+                + "false: snapshots are rebuilt lazily by the first hook (or the flags sync) that needs them.\n"
+                + "true: only players whose accessories changed are rebuilt, ahead of the tick's hooks.\n"
+                + "Compare both with /gustavdev metrics (rebuildSnapshot(lazy) vs precomputeSnapshots)."),
+        new Option(ACCESSORIES_PRECOMPUTE_THREADS, "4",
+            "Maximum number of threads used by the precompute pass (requires a restart)."),
+        new Option(ACCESSORIES_PRECOMPUTE_PARALLEL_THRESHOLD, "32",
+            "Minimum number of changed players in a tick before the precompute pass runs in parallel."),
+        new Option(HOOKS_ACCESSORY_TOTEM, "true",
+            "Whether accessory totems provide death protection (both deathProtection modes).\n"
+                + "Hook switches can also be flipped at runtime with /gustavdev hooks."),
+        new Option(HOOKS_ACCESSORY_ELYTRA, "true",
+            "Whether an elytra in the accessory elytra slot can be used to glide."),
+        new Option(HOOKS_AERIALHELL_TOTEM, "true",
+            "Whether AerialHell effect totems work from accessory slots (only with AerialHell installed)."),
+        new Option(HOOKS_CREATE_GOGGLES, "true",
+            "Whether Create goggles work from accessory slots (only with Create installed)."),
+        new Option(METRICS_BUDGET_P99_NANOS, "16384",
+            "Budget for the p99 cost of a single hook call in nanoseconds, checked by /gustavdev metrics check.\n"
+                + "The p99 is reported as a power of two, so budgets between powers of two round down."),
+        new Option(METRICS_BUDGET_TICK_MICROS, "1000",
+            "Budget for the time all hooks together add to one server tick in microseconds,\n"
+                + "checked by /gustavdev metrics check. A tick has 50000 microseconds.")
+    );
+
+    private static final Properties DEFAULTS = new Properties();
+
+    static {
+        for (Option option : OPTIONS) {
+            DEFAULTS.setProperty(option.key(), option.defaultValue());
+        }
+    }
+
+    private static Properties properties;
+
+    /**
+     * Options read on hot paths (every tick or every snapshot rebuild), parsed once per load.
+     */
+    private static volatile Parsed parsed;
+
+    /**
+     * How accessory totems are hooked into vanilla's death protection.
+     */
+    public enum DeathProtectionMode {
+        FAKE_HAND,
+        DIRECT
+    }
+
+    /**
+     * (Re)loads the config file, creating it or adding missing keys as needed.
+     */
+    public static synchronized void load() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        Properties loaded = new Properties();
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                loaded.load(reader);
+            } catch (IOException e) {
+                LOGGER.error("Failed to read {}, using defaults", path, e);
+            }
+        }
+
+        boolean missingKeys = false;
+        for (String key : DEFAULTS.stringPropertyNames()) {
+            if (!loaded.containsKey(key)) {
+                loaded.setProperty(key, DEFAULTS.getProperty(key));
+                missingKeys = true;
+            }
+        }
+
+        if (missingKeys) {
+            write(path, loaded);
+        }
+
+        properties = loaded;
+        parsed = new Parsed(
+            getBoolean(ACCESSORIES_FULL_SCAN),
+            getBoolean(ACCESSORIES_PRECOMPUTE),
+            (int) Math.max(1, getLong(ACCESSORIES_PRECOMPUTE_PARALLEL_THRESHOLD))
+        );
+    }
+
+    /**
+     * Writes all options with their comments, keeping the given values.
+     */
+    private static void write(Path path, Properties values) {
+        StringBuilder out = new StringBuilder("# GuSMP resources configuration\n");
+        for (Option option : OPTIONS) {
+            out.append('\n');
+            for (String line : option.description().split("\n")) {
+                out.append("# ").append(line).append('\n');
+            }
+            out.append(option.key()).append('=').append(values.getProperty(option.key())).append('\n');
+        }
+
+        try {
+            Files.writeString(path, out);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write {}", path, e);
+        }
+    }
+
+    public static DeathProtectionMode deathProtectionMode() {
+        return getEnum(DEATH_PROTECTION_MODE, DeathProtectionMode.class);
+    }
+
+    public static boolean accessoriesFullScan() {
+        return parsed().fullScan();
+    }
+
+    public static boolean accessoriesPrecompute() {
+        return parsed().precompute();
+    }
+
+    public static int accessoriesPrecomputeThreads() {
+        return (int) Math.max(1, getLong(ACCESSORIES_PRECOMPUTE_THREADS));
+    }
+
+    public static int accessoriesPrecomputeParallelThreshold() {
+        return parsed().precomputeParallelThreshold();
+    }
+
+    /**
+     * @param key One of the hooks.* keys
+     * @return Whether the hook is enabled in the config
+     */
+    public static boolean hookEnabled(String key) {
+        return getBoolean(key);
+    }
+
+    public static long metricsBudgetP99Nanos() {
+        return getLong(METRICS_BUDGET_P99_NANOS);
+    }
+
+    public static long metricsBudgetTickMicros() {
+        return getLong(METRICS_BUDGET_TICK_MICROS);
+    }
+
+    private static String get(String key) {
+        if (properties == null) {
+            load();
+        }
+        return properties.getProperty(key, DEFAULTS.getProperty(key)).trim();
+    }
+
+    private static Parsed parsed() {
+        Parsed current = parsed;
+        if (current == null) {
+            load();
+            current = parsed;
+        }
+        return current;
+    }
+
+    private record Option(String key, String defaultValue, String description) {
+    }
+
+    private record Parsed(boolean fullScan, boolean precompute, int precomputeParallelThreshold) {
+    }
+
+    private static boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    private static long getLong(String key) {
+        String value = get(key);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value '{}' for {}, using {}", value, key, DEFAULTS.getProperty(key));
+            return Long.parseLong(DEFAULTS.getProperty(key));
+        }
+    }
+
+    private static <E extends Enum<E>> E getEnum(String key, Class<E> type) {
+        String value = get(key);
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid value '{}' for {}, using {}", value, key, DEFAULTS.getProperty(key));
+            return Enum.valueOf(type, DEFAULTS.getProperty(key));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.gustavdev.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runtime on/off switches for the mod's injected hooks.
+ * 
+ * Each switch is a MutableCallSite bound to a constant, invoked through a static final
+ * MethodHandle. The JIT treats the call site's target as a constant, so a hook guarded by
+ * a disabled switch compiles down to a plain pass-through with no branch left, and an
+ * enabled one pays nothing either. Flipping a switch re-targets the call site, which
+ * deoptimizes the code that inlined the old value; the next compilation folds the new one.
+ * 
+ * Initial values come from the hooks.* options in config/gustavdev.properties. Switches can
+ * be flipped at runtime with /gustavdev hooks, no restart needed.
+ * 
+ * Note: like GustavdevConfig, this class must not reference any game classes.
+ */
+public final class HookSwitches {
+
+    private static final MutableCallSite ACCESSORY_TOTEM_SITE = newSite(GustavdevConfig.HOOKS_ACCESSORY_TOTEM);
+    private static final MutableCallSite ACCESSORY_ELYTRA_SITE = newSite(GustavdevConfig.HOOKS_ACCESSORY_ELYTRA);
+    private static final MutableCallSite AERIALHELL_TOTEM_SITE = newSite(GustavdevConfig.HOOKS_AERIALHELL_TOTEM);
+    private static final MutableCallSite CREATE_GOGGLES_SITE = newSite(GustavdevConfig.HOOKS_CREATE_GOGGLES);
+
+    private static final MethodHandle ACCESSORY_TOTEM = ACCESSORY_TOTEM_SITE.dynamicInvoker();
+    private static final MethodHandle ACCESSORY_ELYTRA = ACCESSORY_ELYTRA_SITE.dynamicInvoker();
+    private static final MethodHandle AERIALHELL_TOTEM = AERIALHELL_TOTEM_SITE.dynamicInvoker();
+    private static final MethodHandle CREATE_GOGGLES = CREATE_GOGGLES_SITE.dynamicInvoker();
+
+    /** Switches by config key, in config file order. */
+    private static final Map<String, MutableCallSite> SITES = new LinkedHashMap<>();
+
+    static {
+        SITES.put(GustavdevConfig.HOOKS_ACCESSORY_TOTEM, ACCESSORY_TOTEM_SITE);
+        SITES.put(GustavdevConfig.HOOKS_ACCESSORY_ELYTRA, ACCESSORY_ELYTRA_SITE);
+        SITES.put(GustavdevConfig.HOOKS_AERIALHELL_TOTEM, AERIALHELL_TOTEM_SITE);
+        SITES.put(GustavdevConfig.HOOKS_CREATE_GOGGLES, CREATE_GOGGLES_SITE);
+    }
+
+    private HookSwitches() {
+    }
+
+    /**
+     * @return Whether accessory totems provide death protection (LivingEntityMixin, LivingEntityDeathProtectionMixin)
+     */
+    public static boolean accessoryTotem() {
+        return invoke(ACCESSORY_TOTEM);
+    }
+
+    /**
+     * @return Whether the accessory elytra can be used to glide (LivingEntityElytraMixin)
+     */
+    public static boolean accessoryElytra() {
+        return invoke(ACCESSORY_ELYTRA);
+    }
+
+    /**
+     * @return Whether AerialHell effect totems work from accessory slots (AerialhellTotemCompatMixin)
+     */
+    public static boolean aerialhellTotem() {
+        return invoke(AERIALHELL_TOTEM);
+    }
+
+    /**
+     * @return Whether Create goggles work from accessory slots (CreateGogglesCompatMixin)
+     */
+    public static boolean createGoggles() {
+        return invoke(CREATE_GOGGLES);
+    }
+
+    /**
+     * @return The config keys of all switches, in config file order
+     */
+    public static Set<String> keys() {
+        return SITES.keySet();
+    }
+
+    /**
+     * @param key The config key of the switch
+     * @return Whether the switch is currently enabled
+     */
+    public static boolean isEnabled(String key) {
+        return invoke(site(key).getTarget());
+    }
+
+    /**
+     * Flips a switch at runtime. Not written back to the config file.
+     * @param key The config key of the switch
+     * @param enabled The new state
+     */
+    public static synchronized void set(String key, boolean enabled) {
+        MutableCallSite site = site(key);
+        site.setTarget(MethodHandles.constant(boolean.class, enabled));
+        MutableCallSite.syncAll(new MutableCallSite[]{site});
+    }
+
+    /**
+     * Resets every switch to its value in the (re)loaded config.
+     */
+    public static void reload() {
+        for (String key : SITES.keySet()) {
+            set(key, GustavdevConfig.hookEnabled(key));
+        }
+    }
+
+    private static MutableCallSite site(String key) {
+        MutableCallSite site = SITES.get(key);
+        if (site == null) {
+            throw new IllegalArgumentException("Unknown hook switch " + key);
+        }
+        return site;
+    }
+
+    private static MutableCallSite newSite(String key) {
+        return new MutableCallSite(MethodHandles.constant(boolean.class, GustavdevConfig.hookEnabled(key)));
+    }
+
+    private static boolean invoke(MethodHandle handle) {
+        try {
+            return (boolean) handle.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.gustavdev.feature;
+
+import dev.gustavdev.mixin.CreeperAccessor;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.minecraft.world.entity.monster.Creeper;
+
+/**
+ * Disables creeper griefing by giving every creeper a negative explosion radius.
+ * 
+ * Replaces the former gustavdev:no_creeper_grief datapack loop, which rescheduled
+ * itself every second and ran an @e selector over all loaded entities. Creepers are
+ * now handled once, when they are spawned or loaded from a chunk.
+ * 
+ * Existing worlds keep working: creepers the datapack already handled carry the
+ * tagged_no_creeper_grief tag and their ExplosionRadius in NBT, and are left as is,
+ * exactly like the datapack did.
+ */
+public class NoCreeperGrief {
+
+    /** Tag marking creepers that have been handled, shared with the former datapack. */
+    public static final String TAG = "tagged_no_creeper_grief";
+
+    /** Same value the datapack merged into ExplosionRadius. */
+    private static final int EXPLOSION_RADIUS = -3;
+
+    public static void register() {
+        ServerEntityEvents.ENTITY_LOAD.register((entity, level) -> {
+            if (entity instanceof Creeper creeper) {
+                apply(creeper);
+            }
+        });
+    }
+
+    private static void apply(Creeper creeper) {
+        // Already handled, either by us or by the old datapack
+        if (creeper.getTags().contains(TAG)) {
+            return;
+        }
+
+        ((CreeperAccessor) creeper).gustavdev$setExplosionRadius(EXPLOSION_RADIUS);
+        creeper.addTag(TAG);
+    }
+}
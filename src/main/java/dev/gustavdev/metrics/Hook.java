@@ -0,0 +1,54 @@
+package dev.gustavdev.metrics;
+
+/**
+ * The mod's injected hooks that are tracked by HookMetrics.
+ * 
+ * Nested hooks run inside the timed calls of other hooks (a lazy snapshot rebuild
+ * happens within the hook read that triggered it), so their time is already part of
+ * those hooks and must not be added to per-tick totals again.
+ * PRECOMPUTE is not nested: the pass runs on its own at the start of the tick and
+ * rebuilds without going through the lazy path.
+ * 
+ * Untimed hooks only skip or hand out a constant, with no work worth timing and nothing
+ * to find, so they are only counted (HookMetrics.count) and have no cost or hit ratio.
+ */
+public enum Hook {
+    GET_ITEM_IN_HAND("wrapGetItemInHand(FAKE_HAND)", false, true),
+    SET_ITEM_IN_HAND("wrapSetItemInHand(FAKE_HAND)", false, false),
+    AERIALHELL_TOTEM("checkAccessorySlotForTotem", false, true),
+    CREATE_GOGGLES("checkAccessoryForGoggles", false, true),
+    SKIP_FAKE_HAND("skipFakeHand", false, false),
+    SNAPSHOT_REBUILD("rebuildSnapshot(lazy)", true, true),
+    PRECOMPUTE("precomputeSnapshots", false, true);
+
+    private final String hookName;
+    private final boolean nested;
+    private final boolean timed;
+
+    Hook(String hookName, boolean nested, boolean timed) {
+        this.hookName = hookName;
+        this.nested = nested;
+        this.timed = timed;
+    }
+
+    /**
+     * @return The name of the hook as it appears in reports and JFR events
+     */
+    public String hookName() {
+        return this.hookName;
+    }
+
+    /**
+     * @return Whether the hook runs inside other timed hooks, see the class comment
+     */
+    public boolean nested() {
+        return this.nested;
+    }
+
+    /**
+     * @return Whether the hook's calls are timed and counted as hits or misses, see the class comment
+     */
+    public boolean timed() {
+        return this.timed;
+    }
+}
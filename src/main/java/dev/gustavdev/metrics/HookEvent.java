@@ -0,0 +1,43 @@
+package dev.gustavdev.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a sampled hook invocation, emitted by HookMetrics while metrics are enabled.
+ * 
+ * Shows up in a flight recording as "GuSMP Hook Invocation" and can be enabled or
+ * disabled like any other JFR event (dev.gustavdev.HookInvocation).
+ */
+@Name("dev.gustavdev.HookInvocation")
+@Label("GuSMP Hook Invocation")
+@Category({"GuSMP", "Hooks"})
+@Description("Sampled invocation of one of the mod's injected hooks")
+@StackTrace(false)
+class HookEvent extends Event {
+
+    @Label("Hook")
+    String hook;
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("Cost")
+    @Timespan(Timespan.NANOSECONDS)
+    long cost;
+
+    static void emit(Hook hook, boolean hit, long cost) {
+        HookEvent event = new HookEvent();
+        if (event.shouldCommit()) {
+            event.hook = hook.hookName();
+            event.hit = hit;
+            event.cost = cost;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package dev.gustavdev.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead invocation metrics for the mod's injected hooks.
+ * 
+ * Off by default. While disabled a hook pays one volatile read in start() and one
+ * in end(). While enabled every call increments striped counters (LongAdder), and
+ * one in SAMPLE_RATE calls is timed, recorded in a log2 histogram and emitted as a
+ * HookEvent for JFR. Tests can time every call with enable(tick, 1).
+ * 
+ * Usage from a hook:
+ * <pre>
+ * long start = HookMetrics.start();
+ * ... hook body ...
+ * HookMetrics.end(Hook.X, start, hit);
+ * </pre>
+ * Untimed hooks (see Hook.timed) call HookMetrics.count(Hook.X) instead.
+ */
+public final class HookMetrics {
+
+    /** One in this many calls is timed. */
+    private static final int SAMPLE_RATE = 64;
+
+    private static final Counters[] COUNTERS = new Counters[Hook.values().length];
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new Counters();
+        }
+    }
+
+    private static volatile boolean enabled;
+
+    /** One in this many calls is timed while enabled, SAMPLE_RATE unless set by enable(tick, sampleRate). */
+    private static volatile int sampleRate = SAMPLE_RATE;
+
+    /** Server tick at which the current measurement window started. */
+    private static volatile int startTick;
+
+    private HookMetrics() {
+    }
+
+    /**
+     * Starts measuring a hook call.
+     * @return A start timestamp if this call is sampled, 0 otherwise
+     */
+    public static long start() {
+        if (!enabled || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return 0L;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes measuring a hook call.
+     * @param hook The hook that ran
+     * @param start The value returned by start()
+     * @param hit Whether the hook found what it was looking for (e.g. an accessory totem)
+     */
+    public static void end(Hook hook, long start, boolean hit) {
+        if (!enabled) {
+            return;
+        }
+
+        Counters counters = COUNTERS[hook.ordinal()];
+        counters.calls.increment();
+        (hit ? counters.hits : counters.misses).increment();
+
+        if (start != 0L) {
+            long cost = System.nanoTime() - start;
+            counters.histogram[bucket(cost)].increment();
+            counters.sampledNanos.add(cost);
+            HookEvent.emit(hook, hit, cost);
+        }
+    }
+
+    /**
+     * Counts a call of an untimed hook (see Hook.timed), without a cost or a hit.
+     * @param hook The hook that ran
+     */
+    public static void count(Hook hook) {
+        if (!enabled) {
+            return;
+        }
+        COUNTERS[hook.ordinal()].calls.increment();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Resets all counters and starts collecting.
+     * @param tick The current server tick, used for calls per tick
+     */
+    public static void enable(int tick) {
+        enable(tick, SAMPLE_RATE);
+    }
+
+    /**
+     * Resets all counters and starts collecting, timing one in sampleRate calls.
+     * @param tick The current server tick, used for calls per tick
+     * @param sampleRate 1 to time every call, e.g. to measure exact per-tick costs in tests
+     */
+    public static void enable(int tick, int sampleRate) {
+        reset(tick);
+        HookMetrics.sampleRate = Math.max(1, sampleRate);
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Resets all counters and starts a new measurement window.
+     * @param tick The current server tick, used for calls per tick
+     */
+    public static void reset(int tick) {
+        for (Counters counters : COUNTERS) {
+            counters.reset();
+        }
+        startTick = tick;
+    }
+
+    public static int startTick() {
+        return startTick;
+    }
+
+    public static long calls(Hook hook) {
+        return COUNTERS[hook.ordinal()].calls.sum();
+    }
+
+    public static long hits(Hook hook) {
+        return COUNTERS[hook.ordinal()].hits.sum();
+    }
+
+    public static long misses(Hook hook) {
+        return COUNTERS[hook.ordinal()].misses.sum();
+    }
+
+    /**
+     * Estimates the mean cost of a hook from the sampled calls.
+     * @return The mean sampled cost in nanoseconds, or -1 without samples
+     */
+    public static long meanNanos(Hook hook) {
+        Counters counters = COUNTERS[hook.ordinal()];
+        long samples = 0;
+        for (LongAdder bucket : counters.histogram) {
+            samples += bucket.sum();
+        }
+        if (samples == 0) {
+            return -1;
+        }
+        return counters.sampledNanos.sum() / samples;
+    }
+
+    /**
+     * Estimates the time a hook adds to each server tick: mean cost times calls per tick.
+     * For a nested hook (see Hook.nested) that time is already included in its callers'.
+     * @param ticks The number of ticks in the measurement window
+     * @return The estimated nanoseconds per tick, 0 without samples
+     */
+    public static long nanosPerTick(Hook hook, int ticks) {
+        long mean = meanNanos(hook);
+        if (mean < 0) {
+            return 0;
+        }
+        return mean * calls(hook) / Math.max(1, ticks);
+    }
+
+    /**
+     * Estimates the time all hooks together add to each server tick, counting only the
+     * outermost hooks so that nested ones (see Hook.nested) are not counted twice.
+     * @param ticks The number of ticks in the measurement window
+     * @return The estimated nanoseconds per tick
+     */
+    public static long totalNanosPerTick(int ticks) {
+        long total = 0;
+        for (Hook hook : Hook.values()) {
+            if (!hook.nested()) {
+                total += nanosPerTick(hook, ticks);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sums the timed cost of all outermost hooks (see Hook.nested) in the current window.
+     * With a sample rate of 1 the difference between two reads is the exact time the
+     * hooks took in between, e.g. within one tick.
+     * @return The sampled nanoseconds so far
+     */
+    public static long outermostSampledNanos() {
+        long total = 0;
+        for (Hook hook : Hook.values()) {
+            if (!hook.nested()) {
+                total += COUNTERS[hook.ordinal()].sampledNanos.sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Estimates the 99th percentile cost of a hook from the sampled calls.
+     * @return The upper bound in nanoseconds of the histogram bucket holding the p99, or -1 without samples
+     */
+    public static long p99Nanos(Hook hook) {
+        LongAdder[] histogram = COUNTERS[hook.ordinal()].histogram;
+        long[] counts = new long[histogram.length];
+        long total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+
+        long target = (long) Math.ceil(total * 0.99);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return 1L << (i + 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Histogram bucket i holds costs in [2^i, 2^(i+1)) nanoseconds.
+     */
+    private static int bucket(long nanos) {
+        return 63 - Long.numberOfLeadingZeros(Math.max(1L, nanos));
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder sampledNanos = new LongAdder();
+        final LongAdder[] histogram = new LongAdder[63];
+
+        Counters() {
+            for (int i = 0; i < this.histogram.length; i++) {
+                this.histogram[i] = new LongAdder();
+            }
+        }
+
+        void reset() {
+            this.calls.reset();
+            this.hits.reset();
+            this.misses.reset();
+            this.sampledNanos.reset();
+            for (LongAdder bucket : this.histogram) {
+                bucket.reset();
+            }
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package dev.gustavdev.mixin;
 
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.util.MixinTimings;
 import net.fabricmc.loader.api.FabricLoader;
 import org.objectweb.asm.tree.ClassNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.extensibility.IMixinConfigPlugin;
 import org.spongepowered.asm.mixin.extensibility.IMixinInfo;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Mixin plugin for conditionally loading compatibility mixins.
@@ -14,13 +21,71 @@ import java.util.Set;
  * This plugin checks if target mods are loaded before attempting to apply
  * compatibility mixins, preventing errors and warnings when optional mods
  * are not present.
+ * 
+ * Which mixin needs which mods is declared in REQUIRED_MODS, and mod presence
+ * is resolved once in onLoad. The plugin also measures how long this mod's
+ * mixins take to transform each target class (see MixinTimings).
+ * 
+ * It also picks the mixins of the configured death protection mode
+ * (see GustavdevConfig.DEATH_PROTECTION_MODE).
  */
 public class GustavdevMixinPlugin implements IMixinConfigPlugin {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger("gustavdev");
+
+    /**
+     * Compat mixins by simple class name, mapped to the mod IDs that must all be present.
+     * Mixins not listed here are always applied.
+     * 
+     * NOTE: Create-Fly fork also registers as "create" in Fabric, so that check works for both
+     */
+    private static final Map<String, String[]> REQUIRED_MODS = Map.of(
+        "AerialhellTotemCompatMixin", new String[] { "aerialhell" },
+        "CreateGogglesCompatMixin", new String[] { "create" }
+    );
+
+    /** Mixins that are only applied in the FAKE_HAND death protection mode. */
+    private static final String[] FAKE_HAND_MIXINS = {
+        "InteractionHandMixin",
+        "LivingEntityMixin",
+        "PlayerInventoryStorageImplMixin"
+    };
+
+    /** Mixins that are only applied in the DIRECT death protection mode. */
+    private static final String[] DIRECT_MIXINS = {
+        "LivingEntityDeathProtectionMixin"
+    };
+
+    /** Resolved REQUIRED_MODS and death protection mode, by fully qualified mixin class name. */
+    private final Map<String, Boolean> applicable = new HashMap<>();
+
+    /** Time at which the first of our mixins started applying, by target class. */
+    private final Map<String, Long> applyStart = new ConcurrentHashMap<>();
+
     @Override
     public void onLoad(String mixinPackage) {
-        // Called when the mixin config is loaded
-        // No initialization needed for our use case
+        // Resolve mod presence once, instead of on every shouldApplyMixin call
+        FabricLoader loader = FabricLoader.getInstance();
+        for (Map.Entry<String, String[]> entry : REQUIRED_MODS.entrySet()) {
+            boolean isLoaded = true;
+            for (String modId : entry.getValue()) {
+                if (!loader.isModLoaded(modId)) {
+                    LOGGER.info("Skipping {} - {} mod not loaded", entry.getKey(), modId);
+                    isLoaded = false;
+                }
+            }
+            this.applicable.put(mixinPackage + "." + entry.getKey(), isLoaded);
+        }
+
+        GustavdevConfig.load();
+        boolean direct = GustavdevConfig.deathProtectionMode() == GustavdevConfig.DeathProtectionMode.DIRECT;
+        LOGGER.info("Using {} death protection mode", GustavdevConfig.deathProtectionMode());
+        for (String mixin : FAKE_HAND_MIXINS) {
+            this.applicable.put(mixinPackage + "." + mixin, !direct);
+        }
+        for (String mixin : DIRECT_MIXINS) {
+            this.applicable.put(mixinPackage + "." + mixin, direct);
+        }
     }
 
     @Override
@@ -31,30 +96,8 @@ public class GustavdevMixinPlugin implements IMixinConfigPlugin {
 
     @Override
     public boolean shouldApplyMixin(String targetClassName, String mixinClassName) {
-        // Check if the mixin should be applied based on mod presence
-        
-        // AerialHell compatibility mixin - only load if AerialHell is present
-        if (mixinClassName.equals("dev.gustavdev.mixin.AerialhellTotemCompatMixin")) {
-            boolean isLoaded = FabricLoader.getInstance().isModLoaded("aerialhell");
-            if (!isLoaded) {
-                System.out.println("[GustavdevMixinPlugin] Skipping AerialhellTotemCompatMixin - aerialhell mod not loaded");
-            }
-            return isLoaded;
-        }
-        
-        // Create Goggles compatibility mixin - only load if Create is present
-        // NOTE: Create-Fly fork also registers as "create" in Fabric, so this check works for both
-        if (mixinClassName.equals("dev.gustavdev.mixin.CreateGogglesCompatMixin")) {
-            boolean isLoaded = FabricLoader.getInstance().isModLoaded("create");
-            if (!isLoaded) {
-                System.out.println("[GustavdevMixinPlugin] Skipping CreateGogglesCompatMixin - create mod not loaded");
-            }
-            return isLoaded;
-        }
-        
-        
-        // All other mixins should be loaded normally
-        return true;
+        // All mixins without requirements should be loaded normally
+        return this.applicable.getOrDefault(mixinClassName, true);
     }
 
     @Override
@@ -71,13 +114,18 @@ public class GustavdevMixinPlugin implements IMixinConfigPlugin {
 
     @Override
     public void preApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
-        // Called before a mixin is applied to a target class
-        // No pre-processing needed
+        // Mixin runs preApply for all mixins of a target before applying any of them,
+        // so keep the earliest start per target
+        this.applyStart.putIfAbsent(targetClassName, System.nanoTime());
     }
 
     @Override
     public void postApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
-        // Called after a mixin is applied to a target class
-        // No post-processing needed
+        Long start = this.applyStart.get(targetClassName);
+        if (start != null) {
+            long nanos = System.nanoTime() - start;
+            MixinTimings.record(targetClassName, mixinClassName, nanos);
+            LOGGER.debug("Applied {} to {} in {} ns", mixinClassName, targetClassName, nanos);
+        }
     }
 }
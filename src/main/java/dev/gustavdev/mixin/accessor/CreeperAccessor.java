@@ -0,0 +1,16 @@
+package dev.gustavdev.mixin;
+
+import net.minecraft.world.entity.monster.Creeper;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Exposes the creeper's explosion radius, which vanilla only sets from NBT.
+ * Used by NoCreeperGrief.
+ */
+@Mixin(Creeper.class)
+public interface CreeperAccessor {
+
+    @Accessor("explosionRadius")
+    void gustavdev$setExplosionRadius(int explosionRadius);
+}
@@ -1,8 +1,10 @@
 package dev.gustavdev.mixin;
 
 import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
 import dev.gustavdev.util.AccessoryUtil;
-import dev.gustavdev.util.GameplayUtil;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
@@ -36,6 +38,7 @@ import org.spongepowered.asm.mixin.injection.At;
  * - Loom automatically remaps @At targets from Mojang to intermediary at compile time
  * - At runtime, both mods use intermediary names, ensuring compatibility
  * - Only validated totem items (via GameplayUtil.isTotem) are returned from accessories
+ * - Accessory totems are read from AccessoryUtil's per-entity totem snapshot
  * - Conditional loading is handled by GustavdevMixinPlugin.shouldApplyMixin()
  */
 @Mixin(targets = "fr.factionbedrock.aerialhell.Item.EffectTotemItem")
@@ -70,8 +73,8 @@ public abstract class AerialhellTotemCompatMixin {
                                                   ServerLevel world,
                                                   Entity entity,
                                                   EquipmentSlot slot) {
-        // Only process for LivingEntity
-        if (entity instanceof LivingEntity livingEntity) {
+        // Only process for LivingEntity, while the hook is switched on
+        if (HookSwitches.aerialhellTotem() && entity instanceof LivingEntity livingEntity) {
             // Check if this specific totem is already in main hand or off hand
             ItemStack mainHandStack = livingEntity.getItemInHand(InteractionHand.MAIN_HAND);
             if (mainHandStack.getItem() == stack.getItem() || 
@@ -80,11 +83,12 @@ public abstract class AerialhellTotemCompatMixin {
                 return offHandStack;
             }
             
-            // This totem is not in hands, check accessory slots for it
-            ItemStack accessoryTotem = AccessoryUtil.getAccessoryStack(
-                livingEntity,
-                itemStack -> itemStack.getItem() == stack.getItem() && GameplayUtil.isTotem(itemStack)
-            );
+            // This totem is not in hands, check accessory slots for it.
+            // Served from the entity's cached totem snapshot, so every AerialHell totem
+            // ticking for this entity shares one accessory scan instead of one each
+            long start = HookMetrics.start();
+            ItemStack accessoryTotem = AccessoryUtil.getTotemStack(livingEntity, stack.getItem());
+            HookMetrics.end(Hook.AERIALHELL_TOTEM, start, !accessoryTotem.isEmpty());
             
             // If we found this totem in accessories AND it's validated as a totem,
             // return it so the condition (... || getOffHandStack().getItem() == this) passes
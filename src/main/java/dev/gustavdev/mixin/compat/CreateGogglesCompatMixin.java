@@ -1,10 +1,11 @@
 package dev.gustavdev.mixin;
 
 import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
 import dev.gustavdev.util.AccessoryUtil;
-import dev.gustavdev.util.GameplayUtil;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 
@@ -36,6 +37,11 @@ import org.spongepowered.asm.mixin.injection.At;
  * - Loom automatically remaps @At targets from Mojang to intermediary at compile time
  * - At runtime, both mods use intermediary names, ensuring compatibility
  * - Only validated goggles items (via GameplayUtil.isGoggles) are returned from accessories
+ * - Lookups go through AccessoryUtil's per-entity cache instead of scanning every call;
+ *   on the client the result is reused for the rest of the player's tick, so the many
+ *   isWearingGoggles calls per rendered frame cost the same as goggles on the head
+ * - On the client, players' goggles are answered from the accessory flags synced by
+ *   AccessoryFlagsSync, without reading the synced accessory containers
  * - Conditional loading is handled by GustavdevMixinPlugin.shouldApplyMixin()
  */
 @Mixin(targets = "com.zurrtum.create.content.equipment.goggles.GogglesItem")
@@ -58,18 +64,17 @@ public abstract class CreateGogglesCompatMixin {
         at = @At("RETURN")
     )
     private static boolean checkAccessoryForGoggles(boolean original, Player player) {
-        // If already wearing goggles in HEAD slot, return true
-        if (original) {
-            return true;
+        // If already wearing goggles in HEAD slot (or the hook is switched off), keep the result
+        if (original || !HookSwitches.createGoggles()) {
+            return original;
         }
         
         // HEAD slot doesn't have goggles, check accessory slots
-        ItemStack accessoryGoggles = AccessoryUtil.getAccessoryStack(
-            player,
-            GameplayUtil::isGoggles
-        );
+        long start = HookMetrics.start();
+        boolean accessoryGoggles = AccessoryUtil.hasGoggles(player);
+        HookMetrics.end(Hook.CREATE_GOGGLES, start, accessoryGoggles);
         
         // Return true if goggles found in accessories
-        return !accessoryGoggles.isEmpty();
+        return accessoryGoggles;
     }
 }
@@ -1,14 +1,15 @@
 package dev.gustavdev.mixin;
 
-import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
 import dev.gustavdev.util.FakeHandHolder;
 import net.minecraft.world.InteractionHand;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 /**
  * Mixin to prevent Fabric API's PlayerInventoryStorage from trying to use FAKE_HAND.
  * This prevents crashes and unexpected behavior when Fabric API iterates through hands.
@@ -21,22 +22,30 @@ import java.util.Arrays;
 @Mixin(targets = "net/fabricmc/fabric/impl/transfer/item/PlayerInventoryStorageImpl")
 public class PlayerInventoryStorageImplMixin {
 
+    /** InteractionHand.values() without FAKE_HAND, never handed out beyond the wrapped loop. */
+    @Unique
+    private static final InteractionHand[] REAL_HANDS = FakeHandHolder.realHands();
+
     /**
      * Removes FAKE_HAND from the InteractionHand array when Fabric API's offer method
      * iterates through hands. This prevents Fabric API from trying to access FAKE_HAND
      * which would cause issues since it's not a real hand slot.
+     * 
+     * This runs on every Transfer API offer (hoppers, funnels, pipes), so it returns
+     * the real hands filtered once into REAL_HANDS instead of filtering a copy.
+     * The values() call is wrapped rather than modified, so its defensive array
+     * clone is skipped as well and the whole path allocates nothing.
      */
-    @ModifyExpressionValue(
+    @WrapOperation(
         method = "offer",
         at = @At(
             value = "INVOKE",
             target = "Lnet/minecraft/world/InteractionHand;values()[Lnet/minecraft/world/InteractionHand;"
         )
     )
-    private InteractionHand[] skipFakeHand(InteractionHand[] original) {
-        // Remove FAKE_HAND from the array to prevent Fabric API from using it
-        ArrayList<InteractionHand> list = new ArrayList<>(Arrays.asList(original));
-        list.remove(FakeHandHolder.FAKE_HAND);
-        return list.toArray(new InteractionHand[0]);
+    private InteractionHand[] skipFakeHand(Operation<InteractionHand[]> original) {
+        // Only hand out the real hands to prevent Fabric API from using FAKE_HAND
+        HookMetrics.count(Hook.SKIP_FAKE_HAND);
+        return REAL_HANDS;
     }
 }
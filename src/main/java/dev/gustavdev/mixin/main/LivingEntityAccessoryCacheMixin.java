@@ -0,0 +1,45 @@
+package dev.gustavdev.mixin;
+
+import dev.gustavdev.util.AccessoryCache;
+import dev.gustavdev.util.AccessoryCacheHolder;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Attaches an AccessoryCache to every LivingEntity.
+ * 
+ * Storing the cache as a field keeps cached accessory lookups to a single
+ * field read, instead of a map lookup keyed by entity. The flags byte is kept
+ * directly on the entity so the "no totem" check does not even need the cache.
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityAccessoryCacheMixin implements AccessoryCacheHolder {
+
+    @Unique
+    private volatile AccessoryCache gustavdev$accessoryCache;
+
+    @Unique
+    private byte gustavdev$accessoryFlags;
+
+    @Override
+    public AccessoryCache gustavdev$getAccessoryCache() {
+        // Created lazily, hooks may already run while the entity is being constructed.
+        // Racy on purpose: a cache lost to a concurrent first call starts dirty like its winner.
+        AccessoryCache cache = this.gustavdev$accessoryCache;
+        if (cache == null) {
+            cache = this.gustavdev$accessoryCache = new AccessoryCache();
+        }
+        return cache;
+    }
+
+    @Override
+    public byte gustavdev$getAccessoryFlags() {
+        return this.gustavdev$accessoryFlags;
+    }
+
+    @Override
+    public void gustavdev$setAccessoryFlags(byte flags) {
+        this.gustavdev$accessoryFlags = flags;
+    }
+}
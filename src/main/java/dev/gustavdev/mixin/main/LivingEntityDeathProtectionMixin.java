@@ -0,0 +1,75 @@
+package dev.gustavdev.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.util.AccessoryUtil;
+import net.minecraft.advancements.CriteriaTriggers;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.Stats;
+import net.minecraft.tags.DamageTypeTags;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.EntityEvent;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.component.DeathProtection;
+import net.minecraft.world.level.gameevent.GameEvent;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Direct death protection from accessory totems, used instead of FAKE_HAND.
+ * 
+ * OPTIONAL MIXIN: Only applied when deathProtection.mode is DIRECT (see GustavdevConfig).
+ * In that mode InteractionHandMixin, LivingEntityMixin and PlayerInventoryStorageImplMixin
+ * are not applied, so InteractionHand.values() keeps its vanilla length and every hand
+ * loop in the game stays untouched. The accessory lookup only runs on the death path.
+ * 
+ * How it works:
+ * - Vanilla's checkTotemDeathProtection() checks both hands first (original behavior)
+ * - Only if neither hand saved the entity, we look for an accessory totem with the
+ *   DEATH_PROTECTION component and replicate vanilla's consumption of it
+ * - The totem is consumed from the accessory slot directly (live stack reference)
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityDeathProtectionMixin {
+
+    /**
+     * Falls back to an accessory totem when the hands did not provide death protection.
+     * 
+     * Mirrors the vanilla consumption in checkTotemDeathProtection: stats, advancement
+     * trigger and game event for players, health set to 1, the totem's death effects
+     * and the totem animation.
+     */
+    @ModifyReturnValue(
+        method = "checkTotemDeathProtection",
+        at = @At("RETURN")
+    )
+    private boolean checkAccessoryDeathProtection(boolean original, DamageSource damageSource) {
+        // Already protected by a hand, damage that no totem can stop, or the hook is switched off
+        if (original || !HookSwitches.accessoryTotem() || damageSource.is(DamageTypeTags.BYPASSES_INVULNERABILITY)) {
+            return original;
+        }
+
+        LivingEntity entity = (LivingEntity) (Object) this;
+        ItemStack totem = AccessoryUtil.getDeathProtectionStack(entity);
+        DeathProtection deathProtection = totem.get(DataComponents.DEATH_PROTECTION);
+        if (deathProtection == null) {
+            return false;
+        }
+
+        ItemStack usedTotem = totem.copy();
+        totem.shrink(1);
+
+        if (entity instanceof ServerPlayer serverPlayer) {
+            serverPlayer.awardStat(Stats.ITEM_USED.get(usedTotem.getItem()));
+            CriteriaTriggers.USED_TOTEM.trigger(serverPlayer, usedTotem);
+            entity.gameEvent(GameEvent.ITEM_INTERACT_FINISH);
+        }
+
+        entity.setHealth(1.0F);
+        deathProtection.applyEffects(usedTotem, entity);
+        entity.level().broadcastEntityEvent(entity, EntityEvent.PROTECTED_FROM_DEATH);
+        return true;
+    }
+}
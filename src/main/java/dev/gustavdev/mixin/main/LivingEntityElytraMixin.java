@@ -0,0 +1,108 @@
+package dev.gustavdev.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.util.AccessoryUtil;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+
+import java.util.List;
+
+/**
+ * Lets entities glide with an elytra equipped in the accessory elytra slot.
+ * 
+ * How it works:
+ * - canGlide() keeps its vanilla result for equipment elytras; only when vanilla says no
+ *   and the entity is otherwise able to glide (airborne, not riding, no levitation) do we
+ *   check the accessory elytra, mirroring vanilla's canGlideUsing checks
+ * - updateFallFlying() damages one random equipment glider every 20 ticks; when the
+ *   glider is the accessory elytra there is no equipment slot to pick, so we hand
+ *   vanilla the chest slot and return the accessory stack when it looks that slot up
+ * 
+ * Both hooks run every tick while an entity is gliding. The accessory elytra is served
+ * from the entity's AccessoryCache (see AccessoryUtil.getGliderStack), so gliding never
+ * scans the accessory containers itself.
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityElytraMixin {
+
+    @Unique
+    private static final List<EquipmentSlot> GUSTAVDEV$ACCESSORY_GLIDER_SLOTS = List.of(EquipmentSlot.CHEST);
+
+    /**
+     * Set while updateFallFlying is damaging the accessory elytra instead of an equipment glider.
+     */
+    @Unique
+    private boolean gustavdev$damagingAccessoryGlider;
+
+    /**
+     * Allows gliding when the accessory elytra can be used to glide.
+     */
+    @ModifyReturnValue(
+        method = "canGlide",
+        at = @At("RETURN")
+    )
+    private boolean canGlideWithAccessory(boolean original) {
+        if (original || !HookSwitches.accessoryElytra()) {
+            return original;
+        }
+
+        LivingEntity entity = (LivingEntity) (Object) this;
+        if (entity.onGround() || entity.isPassenger() || entity.hasEffect(MobEffects.LEVITATION)) {
+            return false;
+        }
+        return !AccessoryUtil.getGliderStack(entity).isEmpty();
+    }
+
+    /**
+     * Routes the periodic glider damage to the accessory elytra when no equipment slot
+     * holds a usable glider.
+     * 
+     * Vanilla picks a random slot from this list, which would throw on an empty list.
+     */
+    @ModifyExpressionValue(
+        method = "updateFallFlying",
+        at = @At(
+            value = "INVOKE",
+            target = "Ljava/util/stream/Stream;toList()Ljava/util/List;"
+        )
+    )
+    private List<EquipmentSlot> useAccessoryGliderSlot(List<EquipmentSlot> gliderSlots) {
+        if (!gliderSlots.isEmpty() || !HookSwitches.accessoryElytra()) {
+            return gliderSlots;
+        }
+
+        LivingEntity entity = (LivingEntity) (Object) this;
+        if (AccessoryUtil.getGliderStack(entity).isEmpty()) {
+            return gliderSlots;
+        }
+        this.gustavdev$damagingAccessoryGlider = true;
+        return GUSTAVDEV$ACCESSORY_GLIDER_SLOTS;
+    }
+
+    /**
+     * Returns the accessory elytra for the slot picked by useAccessoryGliderSlot.
+     */
+    @WrapOperation(
+        method = "updateFallFlying",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/entity/LivingEntity;getItemBySlot(Lnet/minecraft/world/entity/EquipmentSlot;)Lnet/minecraft/world/item/ItemStack;"
+        )
+    )
+    private ItemStack getAccessoryGlider(LivingEntity instance, EquipmentSlot slot, Operation<ItemStack> original) {
+        if (this.gustavdev$damagingAccessoryGlider) {
+            this.gustavdev$damagingAccessoryGlider = false;
+            return AccessoryUtil.getGliderStack(instance);
+        }
+        return original.call(instance, slot);
+    }
+}
@@ -2,9 +2,11 @@ package dev.gustavdev.mixin;
 
 import com.llamalad7.mixinextras.injector.wrapmethod.WrapMethod;
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import dev.gustavdev.config.HookSwitches;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
 import dev.gustavdev.util.AccessoryUtil;
 import dev.gustavdev.util.FakeHandHolder;
-import dev.gustavdev.util.GameplayUtil;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
@@ -40,6 +42,8 @@ public abstract class LivingEntityMixin {
      * - Makes the accessory totem "visible" to vanilla's death protection check
      * - Vanilla loops through InteractionHand.values(), which now includes FAKE_HAND
      * - When it calls getItemInHand(FAKE_HAND), we return the totem from accessories
+     * - The totem is served from the entity's accessory cache (see AccessoryUtil.getTotemStack),
+     *   entities known to have no totem (or no accessories at all) return EMPTY after one field read
      * 
      * For MAIN_HAND/OFF_HAND:
      * - Returns the actual hand contents (not overridden)
@@ -53,10 +57,14 @@ public abstract class LivingEntityMixin {
     private ItemStack wrapGetItemInHand(InteractionHand hand, Operation<ItemStack> original) {
         // Handle FAKE_HAND (for death protection)
         if (hand == FakeHandHolder.FAKE_HAND) {
-            return AccessoryUtil.getAccessoryStack(
-                (LivingEntity) (Object) this,
-                GameplayUtil::isTotem
-            );
+            // Switched off: FAKE_HAND stays an empty hand
+            if (!HookSwitches.accessoryTotem()) {
+                return ItemStack.EMPTY;
+            }
+            long start = HookMetrics.start();
+            ItemStack totem = AccessoryUtil.getTotemStack((LivingEntity) (Object) this);
+            HookMetrics.end(Hook.GET_ITEM_IN_HAND, start, !totem.isEmpty());
+            return totem;
         }
         
         // For MAIN_HAND and OFF_HAND, return actual hand contents
@@ -77,6 +85,7 @@ public abstract class LivingEntityMixin {
     private void wrapSetItemInHand(InteractionHand hand, ItemStack stack, Operation<Void> original) {
         // Skip FAKE_HAND - it's not a real slot
         if (hand == FakeHandHolder.FAKE_HAND) {
+            HookMetrics.count(Hook.SET_ITEM_IN_HAND);
             return;
         }
         
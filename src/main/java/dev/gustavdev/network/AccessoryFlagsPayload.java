@@ -0,0 +1,36 @@
+package dev.gustavdev.network;
+
+import dev.gustavdev.GustavdevMod;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+
+/**
+ * Server to client payload carrying a player's derived accessory flags.
+ * 
+ * One varint entity id and one byte (see AccessoryUtil.SYNC_GOGGLES, SYNC_TOTEM and
+ * SYNC_ELYTRA), sent by AccessoryFlagsSync only when the flags change or a client
+ * starts tracking the player.
+ * 
+ * @param entityId The network id of the player the flags belong to
+ * @param flags The player's accessory flags
+ */
+public record AccessoryFlagsPayload(int entityId, byte flags) implements CustomPacketPayload {
+
+    public static final CustomPacketPayload.Type<AccessoryFlagsPayload> TYPE = new CustomPacketPayload.Type<>(
+        Identifier.fromNamespaceAndPath(GustavdevMod.MOD_ID, "accessory_flags")
+    );
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, AccessoryFlagsPayload> STREAM_CODEC = StreamCodec.composite(
+        ByteBufCodecs.VAR_INT, AccessoryFlagsPayload::entityId,
+        ByteBufCodecs.BYTE, AccessoryFlagsPayload::flags,
+        AccessoryFlagsPayload::new
+    );
+
+    @Override
+    public CustomPacketPayload.Type<AccessoryFlagsPayload> type() {
+        return TYPE;
+    }
+}
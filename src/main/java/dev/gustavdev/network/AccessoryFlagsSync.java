@@ -0,0 +1,79 @@
+package dev.gustavdev.network;
+
+import dev.gustavdev.util.AccessoryUtil;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.EntityTrackingEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Keeps clients informed about each player's accessory flags (goggles, totem, elytra).
+ * 
+ * Client-side checks such as Create's isWearingGoggles run many times per frame.
+ * Without this they depend on Accessories syncing the full slot containers and on
+ * scanning them on the client; with it they read a single synced byte
+ * (see AccessoryUtil.hasGoggles).
+ * 
+ * How it works:
+ * - At the start of every server tick, right after the AccessoryPrecompute pass (when
+ *   enabled), each player's flags are derived from their snapshot, which is a couple of
+ *   field reads while nothing changed (otherwise the first read after a change rebuilds it)
+ * - That is no later than syncing at the end of the previous tick, since the packets
+ *   are only flushed while the tick runs
+ * - Only when the flags differ from what was last sent, an AccessoryFlagsPayload
+ *   goes to the player and everyone tracking them
+ * - Clients that start tracking a player get the player's last sent flags
+ * - After a dimension change the client recreates its player, so the flags are resent
+ * - Clients that did not register the payload (e.g. without this mod) are skipped
+ */
+public class AccessoryFlagsSync {
+
+    public static void register() {
+        PayloadTypeRegistry.playS2C().register(AccessoryFlagsPayload.TYPE, AccessoryFlagsPayload.STREAM_CODEC);
+
+        // Default phase, after AccessoryPrecompute's pass
+        ServerTickEvents.START_SERVER_TICK.register(AccessoryFlagsSync::syncChangedFlags);
+
+        EntityTrackingEvents.START_TRACKING.register((trackedEntity, player) -> {
+            if (trackedEntity instanceof ServerPlayer trackedPlayer) {
+                byte flags = AccessoryUtil.getSyncedFlags(trackedPlayer);
+                if (flags != AccessoryUtil.UNSYNCED) {
+                    send(player, new AccessoryFlagsPayload(trackedPlayer.getId(), flags));
+                }
+            }
+        });
+
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) ->
+            AccessoryUtil.setSyncedFlags(player, AccessoryUtil.UNSYNCED)
+        );
+    }
+
+    private static void syncChangedFlags(MinecraftServer server) {
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            byte flags = AccessoryUtil.computeSyncFlags(player);
+            if (flags == AccessoryUtil.getSyncedFlags(player)) {
+                continue;
+            }
+            AccessoryUtil.setSyncedFlags(player, flags);
+
+            AccessoryFlagsPayload payload = new AccessoryFlagsPayload(player.getId(), flags);
+            send(player, payload);
+            for (ServerPlayer tracking : PlayerLookup.tracking(player)) {
+                send(tracking, payload);
+            }
+        }
+    }
+
+    /**
+     * Sends the payload unless the player's client can't receive it.
+     */
+    private static void send(ServerPlayer player, AccessoryFlagsPayload payload) {
+        if (ServerPlayNetworking.canSend(player, AccessoryFlagsPayload.TYPE)) {
+            ServerPlayNetworking.send(player, payload);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.gustavdev.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Per-entity cache of the accessory stacks resolved by the mod's hooks.
+ * 
+ * One instance lives on every LivingEntity (see AccessoryCacheHolder) and is
+ * filled by AccessoryUtil. It is only rebuilt after the entity's accessory
+ * containers changed (equip, unequip, stack changes, death) or after a datapack
+ * reload, so the hot hook paths can answer with a couple of field reads.
+ * 
+ * When it is rebuilt: invalidation only marks the cache dirty, and the first read after
+ * a change rebuilds it (see AccessoryUtil.resolve). That is the guarantee readers rely on,
+ * with or without the optional precompute pass (accessories.precompute), which only moves
+ * some of those rebuilds ahead of the reads. The client gets no reliable change
+ * notifications, so there the first read in each entity tick rebuilds as well.
+ * 
+ * Thread safety: the resolved state is published as an immutable AccessorySnapshot
+ * through one volatile field, so readers on any thread (e.g. the render thread on an
+ * integrated server) never lock and never see a half-built state. At most one thread
+ * rebuilds at a time, claimed with a compare-and-set.
+ * 
+ * What readers see: every read reflects every change notified before it. A dirty cache
+ * is rebuilt by the read itself, and a reader that finds another thread's rebuild in
+ * progress doesn't wait and doesn't fall back to the previous snapshot: it resolves a
+ * private one from the containers instead, without publishing it. Only that contended
+ * case allocates. Each snapshot records the entity tick it was built at
+ * (AccessorySnapshot.tick).
+ */
+public class AccessoryCache {
+
+    private static final VarHandle REBUILDING;
+
+    static {
+        try {
+            REBUILDING = MethodHandles.lookup().findVarHandle(AccessoryCache.class, "rebuilding", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Set when the accessory containers changed since the last rebuild. */
+    volatile boolean dirty = true;
+
+    /** Set while the entity waits in AccessoryUtil's queue for the precompute pass. */
+    volatile boolean queued;
+
+    /** The last published state, never null. */
+    volatile AccessorySnapshot snapshot = AccessorySnapshot.EMPTY;
+
+    /**
+     * The entity's accessory flags as last synced (see AccessoryUtil.SYNC_GOGGLES):
+     * last sent on the server, last received on the client. AccessoryUtil.UNSYNCED until then.
+     */
+    volatile byte syncedFlags = AccessoryUtil.UNSYNCED;
+
+    /** Scratch query of the rebuilding thread, only touched while holding the rebuild claim. */
+    final AccessoryQuery query = new AccessoryQuery(
+        AccessoryCategory.TOTEM,
+        AccessoryCategory.GOGGLES,
+        AccessoryCategory.ELYTRA
+    );
+
+    /** Set while a thread holds the rebuild claim, written through REBUILDING. */
+    private volatile boolean rebuilding;
+
+    /**
+     * @return Whether another thread may be rebuilding right now, i.e. the published snapshot may be about to change
+     */
+    boolean isRebuilding() {
+        return this.rebuilding;
+    }
+
+    /**
+     * Claims the rebuild without blocking.
+     * @return true if the calling thread may rebuild, false if another thread is already rebuilding
+     */
+    boolean tryBeginRebuild() {
+        return REBUILDING.compareAndSet(this, false, true);
+    }
+
+    /**
+     * Releases a rebuild claimed with tryBeginRebuild.
+     */
+    void endRebuild() {
+        REBUILDING.setVolatile(this, false);
+    }
+}
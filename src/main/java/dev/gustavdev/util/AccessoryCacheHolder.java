@@ -0,0 +1,25 @@
+package dev.gustavdev.util;
+
+/**
+ * Duck interface implemented on LivingEntity by LivingEntityAccessoryCacheMixin.
+ * 
+ * Gives AccessoryUtil direct access to the per-entity AccessoryCache without
+ * a map lookup, so cached accessory reads stay O(1) and allocation-free.
+ * 
+ * Next to the cache the entity carries a flags byte (see AccessoryUtil), which lets
+ * the FAKE_HAND hook settle the common "no totem" case with a single field read.
+ */
+public interface AccessoryCacheHolder {
+
+    /**
+     * @return The accessory cache attached to this entity, never null
+     */
+    AccessoryCache gustavdev$getAccessoryCache();
+
+    /**
+     * @return The accessory flags of this entity, 0 while unknown
+     */
+    byte gustavdev$getAccessoryFlags();
+
+    void gustavdev$setAccessoryFlags(byte flags);
+}
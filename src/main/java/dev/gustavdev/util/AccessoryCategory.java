@@ -0,0 +1,39 @@
+package dev.gustavdev.util;
+
+import net.minecraft.world.item.ItemStack;
+
+import java.util.function.Predicate;
+
+/**
+ * Kinds of accessories the mod bridges into vanilla or other mods,
+ * each with the dedicated slot it lives in and the check that validates it.
+ * 
+ * Used with AccessoryQuery to resolve several kinds in a single traversal.
+ */
+public enum AccessoryCategory {
+    TOTEM(AccessoryUtil.TOTEM_SLOT, GameplayUtil::isTotem),
+    GOGGLES(AccessoryUtil.GOGGLES_SLOT, GameplayUtil::isGoggles),
+    ELYTRA(AccessoryUtil.ELYTRA_SLOT, GameplayUtil::isElytra);
+
+    private final String slotName;
+    private final Predicate<ItemStack> predicate;
+
+    AccessoryCategory(String slotName, Predicate<ItemStack> predicate) {
+        this.slotName = slotName;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @return The name of the mod's accessory slot dedicated to this category
+     */
+    public String slotName() {
+        return this.slotName;
+    }
+
+    /**
+     * @return Whether the (non-empty) stack belongs to this category
+     */
+    public boolean test(ItemStack stack) {
+        return this.predicate.test(stack);
+    }
+}
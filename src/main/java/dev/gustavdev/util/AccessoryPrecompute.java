@@ -0,0 +1,142 @@
+package dev.gustavdev.util;
+
+import dev.gustavdev.GustavdevMod;
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.entity.LivingEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional start-of-tick rebuild of players' accessory snapshots
+ * (accessories.precompute in config/gustavdev.properties, off by default).
+ * 
+ * By default a snapshot is rebuilt lazily by the first hook that needs it, so with many
+ * players the rebuilds are scattered through the tick on the server thread. With this
+ * mode enabled, every player whose accessories changed is rebuilt in one pass at the
+ * start of the next server tick, and the hooks (and the flags sync) only read the
+ * published snapshots. Either way the first read after a change sees it, see AccessoryCache.
+ * 
+ * How it works:
+ * - The pass runs on START_SERVER_TICK, in a phase ordered before the default one, so
+ *   AccessoryFlagsSync (which reads every player's snapshot) runs after it
+ * - Only the players AccessoryUtil.invalidate queued since the last pass are visited,
+ *   so the pass costs nothing while nothing changes, and nothing is queued while disabled
+ * - Below accessories.precomputeParallelThreshold they are rebuilt on the server thread
+ * - At or above it the rebuilds are spread over a bounded ForkJoinPool
+ *   (accessories.precomputeThreads)
+ * - A player read between its change and the pass is rebuilt lazily by that read, and
+ *   skipped here
+ * 
+ * Why the parallel rebuilds may read the accessory containers off the server thread:
+ * - Server-side accessory containers are only changed on the server thread, and the
+ *   server thread does nothing but wait in join() until every worker is done, so no
+ *   container or stack changes while the workers read them
+ * - submit() and join() order the workers' reads after everything the server thread did
+ *   before the pass, and the server thread's next reads after everything the workers wrote
+ * - Each player is rebuilt by exactly one worker, and a rebuild only writes that player's
+ *   own AccessoryCache (under its rebuild claim) and accessory flags
+ * - Only players are queued: their accessory capability always exists, so looking it up
+ *   never attaches anything to the entity
+ * 
+ * The pass is tracked as Hook.PRECOMPUTE (hit = ran in parallel) and the lazy rebuilds it
+ * replaces as Hook.SNAPSHOT_REBUILD, so both modes can be compared with /gustavdev metrics.
+ */
+public class AccessoryPrecompute {
+
+    /** Phase of START_SERVER_TICK the pass runs in, ahead of the default phase. */
+    private static final Identifier PHASE = Identifier.fromNamespaceAndPath(GustavdevMod.MOD_ID, "precompute");
+
+    /** Dirty players of the current pass, reused across ticks. Only touched by the server thread. */
+    private static final List<LivingEntity> DIRTY = new ArrayList<>();
+
+    private static ForkJoinPool pool;
+
+    public static void register() {
+        ServerTickEvents.START_SERVER_TICK.addPhaseOrdering(PHASE, Event.DEFAULT_PHASE);
+        ServerTickEvents.START_SERVER_TICK.register(PHASE, server -> precompute());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> shutdown());
+    }
+
+    /**
+     * Rebuilds the snapshots of every player whose accessories changed since the last pass.
+     * Runs at the start of each tick; must only be called on the server thread.
+     */
+    public static void precompute() {
+        LivingEntity entity = AccessoryUtil.pollChanged();
+        if (entity == null) {
+            return;
+        }
+
+        long start = HookMetrics.start();
+        // Drained even when disabled, players may have been queued before a config reload
+        for (; entity != null; entity = AccessoryUtil.pollChanged()) {
+            if (!entity.isRemoved() && AccessoryUtil.isDirty(entity)) {
+                DIRTY.add(entity);
+            }
+        }
+        if (!GustavdevConfig.accessoriesPrecompute()) {
+            DIRTY.clear();
+            return;
+        }
+
+        boolean parallel = DIRTY.size() >= GustavdevConfig.accessoriesPrecomputeParallelThreshold();
+        try {
+            if (parallel) {
+                pool().submit(() -> DIRTY.parallelStream().forEach(AccessoryUtil::precompute)).join();
+            } else {
+                for (LivingEntity dirty : DIRTY) {
+                    AccessoryUtil.precompute(dirty);
+                }
+            }
+        } finally {
+            DIRTY.clear();
+        }
+        HookMetrics.end(Hook.PRECOMPUTE, start, parallel);
+    }
+
+    /**
+     * Creates the worker pool on first use, sized once from the config.
+     */
+    private static ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(
+                GustavdevConfig.accessoriesPrecomputeThreads(),
+                AccessoryPrecompute::newWorker,
+                null,
+                false
+            );
+        }
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("gustavdev-precompute-" + worker.getPoolIndex());
+        worker.setDaemon(true);
+        // Resolve classes through the mod's (game) class loader, not the system one
+        worker.setContextClassLoader(AccessoryPrecompute.class.getClassLoader());
+        return worker;
+    }
+
+    private static void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool = null;
+        }
+    }
+}
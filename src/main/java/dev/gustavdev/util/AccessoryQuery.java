@@ -0,0 +1,96 @@
+package dev.gustavdev.util;
+
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Reusable result holder for a batched accessory lookup (see AccessoryUtil.query).
+ * 
+ * Resolves several accessory categories in one pass over the entity's slots, so the
+ * scan cost stays flat as more accessory-bridged items are added. Keep one instance
+ * around and run it again, the result arrays are reused and only grow when needed.
+ * 
+ * Matches keep slot order and are the live stacks from the slots, not copies.
+ * Not thread-safe.
+ */
+public class AccessoryQuery {
+
+    private static final AccessoryCategory[] ALL_CATEGORIES = AccessoryCategory.values();
+
+    private final AccessoryCategory[] categories;
+    private final ItemStack[][] matches = new ItemStack[ALL_CATEGORIES.length][];
+    private final int[] counts = new int[ALL_CATEGORIES.length];
+
+    /**
+     * @param categories The categories this query resolves
+     */
+    public AccessoryQuery(AccessoryCategory... categories) {
+        this.categories = categories.clone();
+        for (AccessoryCategory category : this.categories) {
+            this.matches[category.ordinal()] = new ItemStack[2];
+        }
+    }
+
+    /**
+     * @return The categories this query resolves
+     */
+    AccessoryCategory[] categories() {
+        return this.categories;
+    }
+
+    /**
+     * @return The number of matches of the category in the last run
+     */
+    public int count(AccessoryCategory category) {
+        return this.counts[category.ordinal()];
+    }
+
+    /**
+     * @return The index-th match of the category in the last run
+     */
+    public ItemStack get(AccessoryCategory category, int index) {
+        if (index >= this.counts[category.ordinal()]) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.matches[category.ordinal()][index];
+    }
+
+    /**
+     * @return The first match of the category in the last run, or ItemStack.EMPTY
+     */
+    public ItemStack first(AccessoryCategory category) {
+        return this.counts[category.ordinal()] > 0 ? this.matches[category.ordinal()][0] : ItemStack.EMPTY;
+    }
+
+    /**
+     * Clears the results of the previous run.
+     */
+    public void clear() {
+        for (AccessoryCategory category : this.categories) {
+            int index = category.ordinal();
+            // Drop references to stacks from the previous run
+            Arrays.fill(this.matches[index], 0, this.counts[index], null);
+            this.counts[index] = 0;
+        }
+    }
+
+    /**
+     * Tests a stack against every category of this query, recording it where it matches.
+     */
+    void offer(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return;
+        }
+        for (AccessoryCategory category : this.categories) {
+            if (category.test(stack)) {
+                int index = category.ordinal();
+                ItemStack[] found = this.matches[index];
+                if (this.counts[index] == found.length) {
+                    found = this.matches[index] = Arrays.copyOf(found, found.length * 2);
+                }
+                found[this.counts[index]++] = stack;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.gustavdev.util;
+
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Immutable view of an entity's resolved accessory state.
+ * 
+ * Built by AccessoryUtil from a batched AccessoryQuery and published through
+ * AccessoryCache.snapshot, a single volatile reference. Readers on any thread
+ * (server thread, client/render thread, integrated server) get a consistent view
+ * of all categories with one volatile read, no locking and no allocation.
+ * 
+ * The snapshot itself never changes. The stacks it holds are the live references
+ * from the accessory slots, so consuming a totem still shrinks the stack inside the
+ * slot; callers must check isEmpty() on a stack they got from a snapshot.
+ */
+public final class AccessorySnapshot {
+
+    private static final ItemStack[] NO_STACKS = new ItemStack[0];
+
+    /**
+     * Placeholder published before the first rebuild: no accessories, never current
+     * for any tick.
+     */
+    static final AccessorySnapshot EMPTY = new AccessorySnapshot(
+        false, Integer.MIN_VALUE, NO_STACKS, ItemStack.EMPTY, ItemStack.EMPTY
+    );
+
+    private final boolean hasAccessories;
+    private final int tick;
+    private final ItemStack[] totems;
+    private final ItemStack goggles;
+    private final ItemStack elytra;
+
+    private AccessorySnapshot(boolean hasAccessories, int tick, ItemStack[] totems, ItemStack goggles, ItemStack elytra) {
+        this.hasAccessories = hasAccessories;
+        this.tick = tick;
+        this.totems = totems;
+        this.goggles = goggles;
+        this.elytra = elytra;
+    }
+
+    /**
+     * Copies the results of a finished query into a new snapshot.
+     * @param hasAccessories Whether the entity has accessory containers at all
+     * @param tick The entity tickCount the query ran at
+     * @param query The query to copy, which may be reused afterwards
+     */
+    public static AccessorySnapshot of(boolean hasAccessories, int tick, AccessoryQuery query) {
+        int count = query.count(AccessoryCategory.TOTEM);
+        ItemStack[] totems = count == 0 ? NO_STACKS : new ItemStack[count];
+        for (int i = 0; i < count; i++) {
+            totems[i] = query.get(AccessoryCategory.TOTEM, i);
+        }
+        return new AccessorySnapshot(
+            hasAccessories,
+            tick,
+            totems,
+            query.first(AccessoryCategory.GOGGLES),
+            query.first(AccessoryCategory.ELYTRA)
+        );
+    }
+
+    /**
+     * @return Whether the entity had accessory containers at all
+     */
+    public boolean hasAccessories() {
+        return this.hasAccessories;
+    }
+
+    /**
+     * @return The entity tickCount this snapshot was built at
+     */
+    public int tick() {
+        return this.tick;
+    }
+
+    /**
+     * @return The number of equipped totems
+     */
+    public int totemCount() {
+        return this.totems.length;
+    }
+
+    /**
+     * @return The index-th equipped totem, in slot order
+     */
+    public ItemStack totem(int index) {
+        return this.totems[index];
+    }
+
+    /**
+     * @return The first equipped totem, or ItemStack.EMPTY
+     */
+    public ItemStack totem() {
+        return this.totems.length > 0 ? this.totems[0] : ItemStack.EMPTY;
+    }
+
+    /**
+     * @return The first equipped goggles, or ItemStack.EMPTY
+     */
+    public ItemStack goggles() {
+        return this.goggles;
+    }
+
+    /**
+     * @return The first equipped elytra, or ItemStack.EMPTY
+     */
+    public ItemStack elytra() {
+        return this.elytra;
+    }
+}
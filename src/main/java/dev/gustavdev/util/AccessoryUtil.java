@@ -1,18 +1,84 @@
 package dev.gustavdev.util;
 
+import dev.gustavdev.config.GustavdevConfig;
+import dev.gustavdev.metrics.Hook;
+import dev.gustavdev.metrics.HookMetrics;
 import io.wispforest.accessories.api.AccessoriesCapability;
+import io.wispforest.accessories.api.AccessoriesContainer;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Predicate;
 
 /**
  * Utility class for working with the Accessories API.
+ * 
+ * The cached lookups (getTotemStack, getGogglesStack, ...) only read this mod's own
+ * slots by default. Items placed in other slots are found only with the full scan
+ * fallback enabled (accessories.fullScan in config/gustavdev.properties).
  */
 public class AccessoryUtil {
 
+    /** Name of this mod's totem slot, see data/gustavdev/accessories/slot/totem.json. */
+    public static final String TOTEM_SLOT = "totem";
+
+    /** Name of this mod's goggles slot, see data/gustavdev/accessories/slot/goggles.json. */
+    public static final String GOGGLES_SLOT = "goggles";
+
+    /** Name of this mod's elytra slot, see data/gustavdev/accessories/slot/elytra.json. */
+    public static final String ELYTRA_SLOT = "elytra";
+
+    /** Entity flag: the flags below are up to date. Flags of 0 mean unknown. */
+    private static final byte FLAG_RESOLVED = 1;
+
+    /** Entity flag: at least one totem is equipped. */
+    private static final byte FLAG_TOTEM = 1 << 1;
+
+    /** Flags of an entity that is known to have no totem, or no accessories at all. */
+    private static final byte FLAGS_NO_TOTEM = FLAG_RESOLVED;
+
+    /** Synced accessory flag: goggles are equipped. */
+    public static final byte SYNC_GOGGLES = 1;
+
+    /** Synced accessory flag: at least one totem is equipped. */
+    public static final byte SYNC_TOTEM = 1 << 1;
+
+    /** Synced accessory flag: an elytra is equipped. */
+    public static final byte SYNC_ELYTRA = 1 << 2;
+
+    /** Synced accessory flags that have not been sent or received yet. */
+    public static final byte UNSYNCED = -1;
+
+    /**
+     * Players invalidated since the last AccessoryPrecompute pass, each queued once until
+     * the pass takes it. Only filled while precompute is enabled. Invalidations may come
+     * from any thread.
+     */
+    private static final Queue<LivingEntity> CHANGED = new ConcurrentLinkedQueue<>();
+
     /**
      * Gets an accessory stack from the entity that matches the given predicate.
+     * 
+     * Walks the slot containers directly and returns on the first match, instead of
+     * asking the capability for every equipped accessory (which builds a list and a
+     * SlotEntryReference per match). The capability's containers are read live on
+     * every call, without going through the entity's AccessoryCache, so a pending
+     * invalidation never costs a snapshot rebuild here and a slot added or removed
+     * since the last rebuild is always seen. The only object involved is the map's
+     * values iterator, which the JIT removes once the loop is compiled
+     * (HookAllocationGameTest holds it to zero bytes).
+     * 
+     * Note: unlike getEquipped, this does not descend into accessory nests.
+     * 
      * @param entity The entity to check
      * @param predicate The predicate to match accessories against
      * @return The matching ItemStack, or ItemStack.EMPTY if none found
@@ -23,14 +89,450 @@ public class AccessoryUtil {
             return ItemStack.EMPTY;
         }
 
-        // Get all equipped accessories
-        var accessories = capability.getEquipped(predicate);
-        
-        // Return the first matching accessory, or empty if none found
-        if (!accessories.isEmpty()) {
-            return accessories.get(0).stack();
+        for (AccessoriesContainer container : capability.getContainers().values()) {
+            ItemStack stack = firstMatch(container.getAccessories(), predicate);
+            if (!stack.isEmpty()) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Gets an accessory stack from one named slot of the entity that matches the given predicate.
+     * 
+     * Only that slot's container is read, so slots added by other mods cost nothing.
+     * Use the slot names of this mod's slot definitions (TOTEM_SLOT, GOGGLES_SLOT, ELYTRA_SLOT)
+     * or any other Accessories slot name.
+     * 
+     * @param entity The entity to check
+     * @param slotName The name of the accessory slot, e.g. TOTEM_SLOT
+     * @param predicate The predicate to match accessories against
+     * @return The matching ItemStack, or ItemStack.EMPTY if none found or the entity has no such slot
+     */
+    public static ItemStack getSlotStack(LivingEntity entity, String slotName, Predicate<ItemStack> predicate) {
+        var capability = AccessoriesCapability.get(entity);
+        if (capability == null) {
+            return ItemStack.EMPTY;
+        }
+        return getSlotStack(capability, slotName, predicate);
+    }
+
+    private static ItemStack getSlotStack(AccessoriesCapability capability, String slotName, Predicate<ItemStack> predicate) {
+        var container = capability.getContainers().get(slotName);
+        if (container == null) {
+            return ItemStack.EMPTY;
+        }
+        return firstMatch(container.getAccessories(), predicate);
+    }
+
+    /**
+     * Returns the first stack of a slot container that matches the predicate.
+     * 
+     * An indexed walk over the slots that returns on the first match, so it allocates
+     * nothing on hit or miss. This is the walk behind getAccessoryStack and getSlotStack.
+     * 
+     * @param accessories The accessory stacks of one slot container
+     * @param predicate The predicate to match accessories against
+     * @return The matching ItemStack, or ItemStack.EMPTY if none found
+     */
+    public static ItemStack firstMatch(Container accessories, Predicate<ItemStack> predicate) {
+        for (int i = 0, size = accessories.getContainerSize(); i < size; i++) {
+            ItemStack stack = accessories.getItem(i);
+            // Return the first matching accessory
+            if (!stack.isEmpty() && predicate.test(stack)) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Gets the first equipped totem (see GameplayUtil.isTotem) from the entity's accessories.
+     * 
+     * Served from the entity's AccessoryCache. On the server the cache is only rebuilt
+     * after the accessory containers changed. The client gets no reliable change
+     * notifications for synced containers, so there the cache is additionally rebuilt
+     * at most once per entity tick, which keeps per-frame callers (overlays, tooltips,
+     * block entity info) at a field read.
+     * 
+     * A totem consumed in place stays in the snapshot until the change notification
+     * arrives, so the snapshot's totems are walked in slot order and the first one
+     * that is still live is returned.
+     * 
+     * @param entity The entity to check
+     * @return The live totem stack, or ItemStack.EMPTY if none is equipped
+     */
+    public static ItemStack getTotemStack(LivingEntity entity) {
+        if (((AccessoryCacheHolder) entity).gustavdev$getAccessoryFlags() == FLAGS_NO_TOTEM) {
+            return ItemStack.EMPTY;
+        }
+        AccessorySnapshot snapshot = resolve(entity);
+        for (int i = 0, count = snapshot.totemCount(); i < count; i++) {
+            ItemStack stack = snapshot.totem(i);
+            if (!stack.isEmpty()) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Gets the first equipped totem of the given item from the entity's accessories.
+     * 
+     * Answered from the entity's AccessorySnapshot, which holds every
+     * equipped totem and is resolved once per change (and at most once per tick), so
+     * several callers per tick (e.g. one AerialHell inventoryTick per totem type)
+     * share a single accessory scan.
+     * 
+     * @param entity The entity to check
+     * @param item The totem item to look for
+     * @return The live totem stack, or ItemStack.EMPTY if that totem is not equipped
+     */
+    public static ItemStack getTotemStack(LivingEntity entity, Item item) {
+        if (((AccessoryCacheHolder) entity).gustavdev$getAccessoryFlags() == FLAGS_NO_TOTEM) {
+            return ItemStack.EMPTY;
+        }
+        AccessorySnapshot snapshot = resolve(entity);
+        for (int i = 0, count = snapshot.totemCount(); i < count; i++) {
+            ItemStack stack = snapshot.totem(i);
+            if (stack.getItem() == item && !stack.isEmpty()) {
+                return stack;
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Gets the first equipped totem that actually provides death protection
+     * (carries the DEATH_PROTECTION component) from the entity's accessories.
+     * 
+     * Used by the direct death protection mode, which can skip tag-only totems
+     * (e.g. AerialHell effect totems) that would never save the entity.
+     * 
+     * @param entity The entity to check
+     * @return The live totem stack, or ItemStack.EMPTY if none is equipped
+     */
+    public static ItemStack getDeathProtectionStack(LivingEntity entity) {
+        if (((AccessoryCacheHolder) entity).gustavdev$getAccessoryFlags() == FLAGS_NO_TOTEM) {
+            return ItemStack.EMPTY;
+        }
+        AccessorySnapshot snapshot = resolve(entity);
+        for (int i = 0, count = snapshot.totemCount(); i < count; i++) {
+            ItemStack stack = snapshot.totem(i);
+            if (!stack.isEmpty() && stack.has(DataComponents.DEATH_PROTECTION)) {
+                return stack;
+            }
         }
-        
         return ItemStack.EMPTY;
     }
+
+    /**
+     * Gets the first equipped goggles (see GameplayUtil.isGoggles) from the entity's accessories.
+     * 
+     * Cached the same way as getTotemStack.
+     * 
+     * @param entity The entity to check
+     * @return The live goggles stack, or ItemStack.EMPTY if none are equipped
+     */
+    public static ItemStack getGogglesStack(LivingEntity entity) {
+        return liveOrEmpty(resolve(entity).goggles());
+    }
+
+    /**
+     * Checks whether the entity has goggles (see GameplayUtil.isGoggles) in its accessories.
+     * 
+     * On the client this reads the flags synced by AccessoryFlagsSync when the server sent
+     * them, so per-frame checks don't depend on the synced slot containers at all. Falls back
+     * to getGogglesStack otherwise (other entities, or before the first sync).
+     * 
+     * @param entity The entity to check
+     * @return true if goggles are equipped in the entity's accessories
+     */
+    public static boolean hasGoggles(LivingEntity entity) {
+        if (entity.level().isClientSide()) {
+            byte synced = getSyncedFlags(entity);
+            if (synced != UNSYNCED) {
+                return (synced & SYNC_GOGGLES) != 0;
+            }
+        }
+        return !getGogglesStack(entity).isEmpty();
+    }
+
+    /**
+     * Derives the entity's synced accessory flags (SYNC_GOGGLES, SYNC_TOTEM, SYNC_ELYTRA)
+     * from its current snapshot.
+     * @param entity The entity to check
+     * @return The entity's accessory flags
+     */
+    public static byte computeSyncFlags(LivingEntity entity) {
+        AccessorySnapshot snapshot = resolve(entity);
+        byte flags = 0;
+        if (!snapshot.goggles().isEmpty()) {
+            flags |= SYNC_GOGGLES;
+        }
+        for (int i = 0, count = snapshot.totemCount(); i < count; i++) {
+            if (!snapshot.totem(i).isEmpty()) {
+                flags |= SYNC_TOTEM;
+                break;
+            }
+        }
+        if (!snapshot.elytra().isEmpty()) {
+            flags |= SYNC_ELYTRA;
+        }
+        return flags;
+    }
+
+    /**
+     * @return The entity's accessory flags as last synced, or UNSYNCED
+     */
+    public static byte getSyncedFlags(LivingEntity entity) {
+        return ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache().syncedFlags;
+    }
+
+    /**
+     * Records the entity's accessory flags as synced (sent on the server, received on the client).
+     * @param entity The entity the flags belong to
+     * @param flags The synced flags, or UNSYNCED to forget them
+     */
+    public static void setSyncedFlags(LivingEntity entity, byte flags) {
+        ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache().syncedFlags = flags;
+    }
+
+    /**
+     * Gets the equipped elytra from the entity's accessories, if it can be used to glide
+     * (see GameplayUtil.canGlideWith).
+     * 
+     * Glide checks and durability ticking run every tick for every gliding entity,
+     * so this is served from the entity's AccessoryCache like getTotemStack and adds
+     * no accessory scan of its own.
+     * 
+     * @param entity The entity to check
+     * @return The live elytra stack, or ItemStack.EMPTY if none is equipped or it is about to break
+     */
+    public static ItemStack getGliderStack(LivingEntity entity) {
+        ItemStack elytra = resolve(entity).elytra();
+        return GameplayUtil.canGlideWith(elytra) ? elytra : ItemStack.EMPTY;
+    }
+
+    /**
+     * Marks the entity's cached accessory lookups as stale.
+     * Called whenever one of its accessory containers changes.
+     * @param entity The entity whose accessories changed
+     */
+    public static void invalidate(LivingEntity entity) {
+        AccessoryCacheHolder holder = (AccessoryCacheHolder) entity;
+        AccessoryCache cache = holder.gustavdev$getAccessoryCache();
+        // Dirty first, see updateFlags
+        cache.dirty = true;
+        holder.gustavdev$setAccessoryFlags((byte) 0);
+        // Hand players to the start-of-tick pass, everything else rebuilds on its next read
+        if (!cache.queued && entity instanceof ServerPlayer && GustavdevConfig.accessoriesPrecompute()) {
+            cache.queued = true;
+            CHANGED.add(entity);
+        }
+    }
+
+    /**
+     * Marks the cached accessory lookups of every loaded entity as stale.
+     * Called after a datapack reload, since slot definitions (and therefore which
+     * entities have accessory containers at all) and item tags may have changed.
+     * @param server The server that reloaded
+     */
+    public static void invalidateAll(MinecraftServer server) {
+        for (ServerLevel level : server.getAllLevels()) {
+            for (Entity entity : level.getAllEntities()) {
+                if (entity instanceof LivingEntity livingEntity) {
+                    invalidate(livingEntity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a batched lookup: resolves every category of the query in one traversal.
+     * 
+     * Only the dedicated slots of the query's categories are read, unless the full scan
+     * fallback is enabled (see GustavdevConfig.ACCESSORIES_FULL_SCAN), in which case every
+     * slot is walked once and each stack is tested against all categories.
+     * 
+     * @param entity The entity to check
+     * @param query The query to fill, its previous results are cleared
+     * @return Whether the entity has accessories at all
+     */
+    public static boolean query(LivingEntity entity, AccessoryQuery query) {
+        query.clear();
+
+        var capability = AccessoriesCapability.get(entity);
+        if (capability == null) {
+            return false;
+        }
+        offerAll(GustavdevConfig.accessoriesFullScan() ? allContainers(capability) : categoryContainers(capability, query), query);
+        return true;
+    }
+
+    /**
+     * Offers every stack of one slot container to the query, in slot order.
+     * This is the walk behind query and the snapshot rebuild.
+     * @param accessories The accessory stacks of one slot container
+     * @param query The query to offer the stacks to
+     */
+    public static void offerAll(Container accessories, AccessoryQuery query) {
+        for (int i = 0, size = accessories.getContainerSize(); i < size; i++) {
+            query.offer(accessories.getItem(i));
+        }
+    }
+
+    /**
+     * Offers every stack of the containers to the query, skipping slots the entity doesn't have.
+     */
+    private static void offerAll(AccessoriesContainer[] containers, AccessoryQuery query) {
+        for (AccessoriesContainer container : containers) {
+            if (container != null) {
+                offerAll(container.getAccessories(), query);
+            }
+        }
+    }
+
+    /**
+     * @return Every slot container of the capability, in the capability's order
+     */
+    private static AccessoriesContainer[] allContainers(AccessoriesCapability capability) {
+        return capability.getContainers().values().toArray(AccessoriesContainer[]::new);
+    }
+
+    /**
+     * @return The dedicated slot container of every category of the query, null where the entity has no such slot
+     */
+    private static AccessoriesContainer[] categoryContainers(AccessoriesCapability capability, AccessoryQuery query) {
+        var containers = capability.getContainers();
+        AccessoryCategory[] categories = query.categories();
+        AccessoriesContainer[] scanned = new AccessoriesContainer[categories.length];
+        for (int i = 0; i < categories.length; i++) {
+            scanned[i] = containers.get(categories[i].slotName());
+        }
+        return scanned;
+    }
+
+    /**
+     * Takes the next entity queued by invalidate.
+     * Used by AccessoryPrecompute.
+     * @return The entity, or null if none is queued
+     */
+    static LivingEntity pollChanged() {
+        LivingEntity entity = CHANGED.poll();
+        if (entity != null) {
+            ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache().queued = false;
+        }
+        return entity;
+    }
+
+    /**
+     * @return Whether the entity's accessories changed since its snapshot was last built
+     */
+    static boolean isDirty(LivingEntity entity) {
+        return ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache().dirty;
+    }
+
+    /**
+     * Rebuilds the entity's snapshot ahead of the hooks if it is stale.
+     * Used by AccessoryPrecompute, on the server thread or on one of its workers.
+     */
+    static void precompute(LivingEntity entity) {
+        AccessoryCache cache = ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache();
+        if (cache.dirty) {
+            rebuild(entity, cache);
+        }
+    }
+
+    /**
+     * Returns the entity's current snapshot, rebuilding it first if it is stale.
+     * 
+     * This is what guarantees that a read after a change sees it: the first read of a
+     * dirty cache rebuilds it, whether or not AccessoryPrecompute is enabled. Rebuilds on
+     * this path are tracked as Hook.SNAPSHOT_REBUILD to compare against AccessoryPrecompute.
+     * See AccessoryCache for what readers on other threads see.
+     */
+    private static AccessorySnapshot resolve(LivingEntity entity) {
+        AccessoryCache cache = ((AccessoryCacheHolder) entity).gustavdev$getAccessoryCache();
+        // Read before the snapshot: if neither is set, the last rebuild has already been published
+        boolean stale = cache.dirty || cache.isRebuilding();
+        AccessorySnapshot snapshot = cache.snapshot;
+        if (stale || isStaleOnClient(entity, snapshot)) {
+            long start = HookMetrics.start();
+            snapshot = rebuild(entity, cache);
+            HookMetrics.end(Hook.SNAPSHOT_REBUILD, start, snapshot.hasAccessories());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds and publishes the entity's snapshot.
+     * 
+     * Never blocks: if another thread is rebuilding the same entity's cache, the caller
+     * resolves a private snapshot instead of returning the previous one, so it still
+     * reflects every change notified before the call (see AccessoryCache). That takes a
+     * fresh query, but only happens while two threads race on the same entity.
+     */
+    private static AccessorySnapshot rebuild(LivingEntity entity, AccessoryCache cache) {
+        if (!cache.tryBeginRebuild()) {
+            AccessoryQuery query = new AccessoryQuery(AccessoryCategory.values());
+            return AccessorySnapshot.of(query(entity, query), entity.tickCount, query);
+        }
+        try {
+            // Cleared before reading the containers, so a change during the rebuild marks it dirty again
+            cache.dirty = false;
+            var capability = AccessoriesCapability.get(entity);
+            boolean hasCapability = capability != null;
+            cache.query.clear();
+            if (hasCapability) {
+                offerAll(GustavdevConfig.accessoriesFullScan() ? allContainers(capability) : categoryContainers(capability, cache.query), cache.query);
+            }
+            AccessorySnapshot snapshot = AccessorySnapshot.of(hasCapability, entity.tickCount, cache.query);
+            cache.query.clear();
+            cache.snapshot = snapshot;
+            updateFlags(entity, cache, snapshot);
+            return snapshot;
+        } finally {
+            cache.endRebuild();
+        }
+    }
+
+    /**
+     * Publishes the entity flags for the freshly rebuilt cache.
+     * 
+     * The client gets no reliable change notifications, so there the flags are only
+     * settled for entities without accessories at all, everything else keeps going
+     * through the per-tick cache.
+     * 
+     * If the entity was invalidated while the snapshot was being built, the flags are
+     * reset to unknown again, so a stale "no totem" never outlives the change.
+     */
+    private static void updateFlags(LivingEntity entity, AccessoryCache cache, AccessorySnapshot snapshot) {
+        byte flags = 0;
+        if (!snapshot.hasAccessories()) {
+            flags = FLAGS_NO_TOTEM;
+        } else if (!entity.level().isClientSide()) {
+            flags = snapshot.totemCount() > 0 ? (byte) (FLAG_RESOLVED | FLAG_TOTEM) : FLAGS_NO_TOTEM;
+        }
+        ((AccessoryCacheHolder) entity).gustavdev$setAccessoryFlags(flags);
+        if (cache.dirty) {
+            ((AccessoryCacheHolder) entity).gustavdev$setAccessoryFlags((byte) 0);
+        }
+    }
+
+    /**
+     * Client-side caches are only trusted for the entity tick they were built in.
+     */
+    private static boolean isStaleOnClient(LivingEntity entity, AccessorySnapshot snapshot) {
+        return snapshot.tick() != entity.tickCount && entity.level().isClientSide();
+    }
+
+    /**
+     * A cached stack may have been consumed in place (e.g. a totem shrunk to 0)
+     * before the change notification arrives, so never hand out an emptied stack.
+     */
+    private static ItemStack liveOrEmpty(ItemStack stack) {
+        return stack.isEmpty() ? ItemStack.EMPTY : stack;
+    }
 }
@@ -2,13 +2,34 @@ package dev.gustavdev.util;
 
 import net.minecraft.world.InteractionHand;
 
+import java.util.Arrays;
+
 /**
  * Holds a reference to the fake hand used for checking accessories.
  * This hand is added to the InteractionHand enum to allow the totem system
  * to check accessories without depending on other mods.
  * 
  * Note: FAKE_HAND is initialized by InteractionHandMixin's static initializer.
+ * It stays null in the DIRECT death protection mode, where that mixin is not applied.
+ * 
+ * Loops over InteractionHand.values() that must only see real hands are wrapped to
+ * iterate a private array filtered once with realHands() (see PlayerInventoryStorageImplMixin
+ * and the client's MinecraftMixin).
  */
 public class FakeHandHolder {
     public static InteractionHand FAKE_HAND;
+
+    /**
+     * @return A new array of InteractionHand.values() without FAKE_HAND, in order
+     */
+    public static InteractionHand[] realHands() {
+        InteractionHand[] hands = InteractionHand.values();
+        int count = 0;
+        for (InteractionHand hand : hands) {
+            if (hand != FAKE_HAND) {
+                hands[count++] = hand;
+            }
+        }
+        return count == hands.length ? hands : Arrays.copyOf(hands, count);
+    }
 }
@@ -23,6 +23,77 @@ public class GameplayUtil {
         Identifier.fromNamespaceAndPath("accessories", "goggles")
     );
 
+    private static final TagKey<Item> ELYTRA_TAG = TagKey.create(
+        BuiltInRegistries.ITEM.key(),
+        Identifier.fromNamespaceAndPath("accessories", "elytra")
+    );
+
+    /** Item is in the accessories:totem tag. */
+    private static final byte TOTEM_TAG_FLAG = 1;
+
+    /** Item carries DEATH_PROTECTION in its default components. */
+    private static final byte DEATH_PROTECTION_FLAG = 1 << 1;
+
+    /** Item is in the accessories:goggles tag. */
+    private static final byte GOGGLES_TAG_FLAG = 1 << 2;
+
+    /** Item is in the accessories:elytra tag. */
+    private static final byte ELYTRA_TAG_FLAG = 1 << 3;
+
+    /**
+     * Classification flags per item, indexed by item raw ID.
+     * Null until tags have been loaded for the first time, see rebuildClassification().
+     * 
+     * Reading it is not free: the raw ID comes from BuiltInRegistries.ITEM.getId, an
+     * identity hash map lookup, so a classification costs that lookup plus one array
+     * read. That still replaces one tag set lookup per tag and, for unpatched stacks,
+     * the component lookup. ItemClassificationBenchmark measures it against the
+     * unmodified checks.
+     */
+    private static volatile byte[] classification;
+
+    /**
+     * Rebuilds the item classification table.
+     * 
+     * Must be called whenever tags are (re)loaded, so that isTotem and isGoggles
+     * can answer the tag part of their check from the table (a raw ID lookup
+     * and an array read) instead of a tag lookup per tag and call.
+     */
+    public static void rebuildClassification() {
+        byte[] table = new byte[BuiltInRegistries.ITEM.size()];
+        for (Item item : BuiltInRegistries.ITEM) {
+            byte flags = 0;
+            if (item.builtInRegistryHolder().is(TOTEM_TAG)) {
+                flags |= TOTEM_TAG_FLAG;
+            }
+            if (item.components().has(DataComponents.DEATH_PROTECTION)) {
+                flags |= DEATH_PROTECTION_FLAG;
+            }
+            if (item.builtInRegistryHolder().is(GOGGLES_TAG)) {
+                flags |= GOGGLES_TAG_FLAG;
+            }
+            if (item.builtInRegistryHolder().is(ELYTRA_TAG)) {
+                flags |= ELYTRA_TAG_FLAG;
+            }
+            table[BuiltInRegistries.ITEM.getId(item)] = flags;
+        }
+        classification = table;
+    }
+
+    /**
+     * Looks up the classification flags of the stack's item: one registry raw ID
+     * lookup, then one array read.
+     * @return The flags, or -1 if the table is not available (yet) for this item
+     */
+    private static int classify(ItemStack stack) {
+        byte[] table = classification;
+        if (table == null) {
+            return -1;
+        }
+        int id = BuiltInRegistries.ITEM.getId(stack.getItem());
+        return id >= 0 && id < table.length ? table[id] : -1;
+    }
+
     /**
      * Checks if the given ItemStack is a totem.
      * 
@@ -35,6 +106,9 @@ public class GameplayUtil {
      * - Custom totems from Friends and Foes
      * - Any modded item with death protection component
      * 
+     * The tag and default-component part is answered from the classification table,
+     * only stacks with a component patch still need the DEATH_PROTECTION lookup.
+     * 
      * @param stack The ItemStack to check
      * @return true if the stack is a totem, false otherwise
      */
@@ -42,15 +116,28 @@ public class GameplayUtil {
         if (stack.isEmpty()) {
             return false;
         }
-        // Check both the tag and the DEATH_PROTECTION component
-        // This matches Accessorify 1.21.10+ behavior
-        return stack.is(TOTEM_TAG) || stack.has(DataComponents.DEATH_PROTECTION);
+        int flags = classify(stack);
+        if (flags < 0) {
+            // Check both the tag and the DEATH_PROTECTION component
+            // This matches Accessorify 1.21.10+ behavior
+            return stack.is(TOTEM_TAG) || stack.has(DataComponents.DEATH_PROTECTION);
+        }
+        if ((flags & TOTEM_TAG_FLAG) != 0) {
+            return true;
+        }
+        // Without a component patch the stack has exactly its item's default components,
+        // so only patched stacks need the actual component lookup
+        if (stack.isComponentsPatchEmpty()) {
+            return (flags & DEATH_PROTECTION_FLAG) != 0;
+        }
+        return stack.has(DataComponents.DEATH_PROTECTION);
     }
 
     /**
      * Checks if the given ItemStack is goggles.
      * 
-     * Checks the accessories:goggles tag for configured goggles items.
+     * Checks the accessories:goggles tag for configured goggles items,
+     * using the classification table once tags have been loaded.
      * 
      * This ensures compatibility with:
      * - Create mod goggles
@@ -63,6 +150,46 @@ public class GameplayUtil {
         if (stack.isEmpty()) {
             return false;
         }
-        return stack.is(GOGGLES_TAG);
+        int flags = classify(stack);
+        if (flags < 0) {
+            return stack.is(GOGGLES_TAG);
+        }
+        return (flags & GOGGLES_TAG_FLAG) != 0;
+    }
+
+    /**
+     * Checks if the given ItemStack is an elytra.
+     * 
+     * Checks the accessories:elytra tag for configured elytra items,
+     * using the classification table once tags have been loaded.
+     * 
+     * Note: whether the elytra can actually be used to glide is decided by
+     * canGlideWith, this only tells which items belong in the elytra slot.
+     * 
+     * @param stack The ItemStack to check
+     * @return true if the stack is an elytra, false otherwise
+     */
+    public static boolean isElytra(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return false;
+        }
+        int flags = classify(stack);
+        if (flags < 0) {
+            return stack.is(ELYTRA_TAG);
+        }
+        return (flags & ELYTRA_TAG_FLAG) != 0;
+    }
+
+    /**
+     * Checks if the given ItemStack can be used to glide right now.
+     * 
+     * Matches vanilla's LivingEntity.canGlideUsing for a chest-slot elytra: the stack
+     * needs the GLIDER component and must not break on its next point of damage.
+     * 
+     * @param stack The ItemStack to check
+     * @return true if the stack can be used to glide, false otherwise
+     */
+    public static boolean canGlideWith(ItemStack stack) {
+        return !stack.isEmpty() && stack.has(DataComponents.GLIDER) && !stack.nextDamageWillBreak();
     }
 }
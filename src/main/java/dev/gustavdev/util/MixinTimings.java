@@ -0,0 +1,74 @@
+package dev.gustavdev.util;
+
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects how long this mod's mixins take to transform their target classes.
+ * 
+ * Filled by GustavdevMixinPlugin while classes are transformed, and reported once
+ * through the mod logger when the server has started. Kept outside the mixin
+ * package, because classes in a mixin package cannot be referenced by regular code.
+ * 
+ * Note: this class must not reference any game classes, it is loaded during mixin setup.
+ */
+public class MixinTimings {
+
+    private static final Map<String, Timing> TIMINGS = new ConcurrentHashMap<>();
+
+    private static boolean reported;
+
+    /**
+     * Records the time spent transforming a target class.
+     * Mixin applies all mixins of a target together, so the largest duration seen
+     * for a target is the time attributable to this mod for that class.
+     * @param targetClassName The transformed class
+     * @param mixinClassName The mixin that was applied
+     * @param nanos Time since the first of this mod's mixins started applying to the target
+     */
+    public static void record(String targetClassName, String mixinClassName, long nanos) {
+        Timing timing = TIMINGS.computeIfAbsent(targetClassName, name -> new Timing());
+        synchronized (timing) {
+            timing.nanos = Math.max(timing.nanos, nanos);
+            timing.mixins.add(simpleName(mixinClassName));
+        }
+    }
+
+    /**
+     * Logs the recorded timings, once.
+     * @param logger The mod logger
+     */
+    public static synchronized void report(Logger logger) {
+        if (reported) {
+            return;
+        }
+        reported = true;
+
+        long total = 0;
+        Map<String, Timing> sorted = new TreeMap<>(TIMINGS);
+        for (Map.Entry<String, Timing> entry : sorted.entrySet()) {
+            Timing timing = entry.getValue();
+            synchronized (timing) {
+                total += timing.nanos;
+                logger.info("Mixins {} transformed {} in {} ms",
+                    timing.mixins, entry.getKey(), String.format("%.3f", timing.nanos / 1_000_000.0));
+            }
+        }
+        logger.info("Mixins transformed {} target classes in {} ms total",
+            sorted.size(), String.format("%.3f", total / 1_000_000.0));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static final class Timing {
+        long nanos;
+        final Set<String> mixins = new TreeSet<>();
+    }
+}
@@ -1,3 +1,2 @@
-schedule function gustavdev:no_creeper_grief/execute 1s
-
-execute as @e[type=minecraft:creeper,tag=!tagged_no_creeper_grief] run function gustavdev:no_creeper_grief/merge_data
\ No newline at end of file
+# Creeper grief protection is handled by the mod itself now (dev.gustavdev.feature.NoCreeperGrief).
+# Kept as a no-op so schedules persisted by older versions finish without rescheduling.
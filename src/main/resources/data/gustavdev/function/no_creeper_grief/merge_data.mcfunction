@@ -1,3 +0,0 @@
-data merge entity @s {ExplosionRadius:-3}
-
-tag @s add tagged_no_creeper_grief
\ No newline at end of file
@@ -1 +0,0 @@
-schedule function gustavdev:no_creeper_grief/execute 1s
\ No newline at end of file